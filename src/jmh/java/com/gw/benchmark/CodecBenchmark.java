@@ -0,0 +1,123 @@
+package com.gw.benchmark;
+
+import com.gw.core.config.Config;
+import com.gw.core.message.RpcResponseMessage;
+import com.gw.core.protocol.Compression;
+import com.gw.core.protocol.MessageCodecSharable;
+import com.gw.core.protocol.Serializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: MessageCodecSharable 整帧编解码开销（协议头、序列化、压缩），按序列化算法、压缩方式与正文大小组合
+ * <p>
+ * 直接调用编解码方法，不经过 pipeline；配合 -prof gc 查看每条消息的分配量
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:40
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"Java", "Json", "Hessian", "Binary"})
+    private Serializer.Algorithm algorithm;
+
+    @Param({"None", "Snappy"})
+    private Compression compression;
+
+    @Param({"64", "4096", "65536"})
+    private int payloadSize;
+
+    private Codec codec;
+    private EmbeddedChannel channel;
+    private ChannelHandlerContext ctx;
+    private RpcResponseMessage message;
+    private ByteBuf frame;
+    private final List<Object> out = new ArrayList<>(1);
+
+    @Setup
+    public void setup() throws Exception {
+        // 编码时按配置选择序列化算法
+        System.setProperty("serializer.algorithm", algorithm.name());
+        Config.reload();
+        codec = new Codec(1024 * 1024, 64 * 1024 * 1024, compression, 4096);
+        channel = new EmbeddedChannel(codec);
+        ctx = channel.pipeline().context(codec);
+        message = new RpcResponseMessage();
+        message.setSequenceId(1);
+        message.setReturnValue(payload(payloadSize));
+
+        codec.encode(ctx, message, out);
+        ByteBuf encoded = (ByteBuf) out.remove(0);
+        frame = Unpooled.copiedBuffer(encoded);
+        encoded.release();
+    }
+
+    @TearDown
+    public void tearDown() {
+        frame.release();
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public int encode() throws Exception {
+        codec.encode(ctx, message, out);
+        ByteBuf encoded = (ByteBuf) out.remove(0);
+        int length = encoded.readableBytes();
+        encoded.release();
+        return length;
+    }
+
+    @Benchmark
+    public Object decode() throws Exception {
+        ByteBuf in = frame.retainedDuplicate();
+        try {
+            codec.decode(ctx, in, out);
+            return out.remove(0);
+        } finally {
+            in.release();
+        }
+    }
+
+    /**
+     * 由少量单词拼成的文本，压缩比接近常见业务数据
+     */
+    private static String payload(int size) {
+        String[] words = {"order", "user", "status", "amount", "item", "price", "create", "update", "id", "name"};
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(size + 8);
+        while (builder.length() < size) {
+            builder.append(words[random.nextInt(words.length)]).append(random.nextInt(1000)).append(' ');
+        }
+        builder.setLength(size);
+        return builder.toString();
+    }
+
+    /**
+     * 暴露 decode 以便直接调用
+     */
+    private static class Codec extends MessageCodecSharable {
+
+        Codec(int maxFrameLength, int maxMessageLength, Compression compression, int compressionThreshold) {
+            super(maxFrameLength, maxMessageLength, compression, compressionThreshold);
+        }
+
+        @Override
+        public void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+            super.decode(ctx, in, out);
+        }
+    }
+}
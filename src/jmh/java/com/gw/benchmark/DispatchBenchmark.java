@@ -0,0 +1,58 @@
+package com.gw.benchmark;
+
+import com.gw.core.server.ServiceMethod;
+import com.gw.core.server.ServiceMethodRegistry;
+import com.gw.core.service.HelloService;
+import com.gw.core.service.ServicesFactory;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 服务端方法分发开销
+ * <p>
+ * reflective 为旧实现（每次 Class.forName + getMethod + Method.invoke），
+ * registry 为按名称查分发表，methodId 为连接内方法编号查表
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 15:40
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private final String interfaceName = HelloService.class.getName();
+    private final String methodName = "sayHello";
+    private final Class[] parameterTypes = {String.class};
+    private final Object[] args = {"yanan"};
+    private final IntObjectMap<ServiceMethod> methodIds = new IntObjectHashMap<>();
+
+    @Setup
+    public void setup() throws Exception {
+        methodIds.put(1, ServiceMethodRegistry.lookup(interfaceName, methodName, parameterTypes));
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+        Object service = ServicesFactory.getService(Class.forName(interfaceName));
+        Method method = service.getClass().getMethod(methodName, parameterTypes);
+        return method.invoke(service, args);
+    }
+
+    @Benchmark
+    public Object registry() throws Exception {
+        return ServiceMethodRegistry.lookup(interfaceName, methodName, parameterTypes).invoke(args);
+    }
+
+    @Benchmark
+    public Object methodId() throws Exception {
+        return methodIds.get(1).invoke(args);
+    }
+}
@@ -0,0 +1,92 @@
+package com.gw.benchmark;
+
+import com.gw.core.config.Config;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: 回环地址上的同步调用吞吐，对比开启与关闭 flush 合并
+ * <p>
+ * 客户端与服务端在同一进程内，每轮迭代结束时根据 /proc/self/io 的 syscw（仅 Linux）打印每次调用的写系统调用数
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 17:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class FlushBenchmark {
+
+    private static final int PORT = 18081;
+
+    @Param({"true", "false"})
+    private String consolidation;
+
+    private RpcServer server;
+    private HelloService service;
+    private final LongAdder calls = new LongAdder();
+    private long syscw;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("flush.consolidation.enabled", consolidation);
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("server.port", String.valueOf(PORT));
+        Config.reload();
+        server = new RpcServer(PORT);
+        server.start();
+        service = RpcServiceProxy.getProxyService(HelloService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RpcConnectionPool.shutdown();
+        server.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        calls.reset();
+        syscw = writeSyscalls();
+    }
+
+    @TearDown(Level.Iteration)
+    public void endIteration() {
+        long delta = writeSyscalls() - syscw;
+        if (syscw >= 0 && calls.sum() > 0) {
+            System.out.printf(" [write syscalls/call: %.3f]", (double) delta / calls.sum());
+        }
+    }
+
+    @Benchmark
+    public String call() {
+        calls.increment();
+        return service.sayHello("yanan");
+    }
+
+    private static long writeSyscalls() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/io"))) {
+                if (line.startsWith("syscw:")) {
+                    return Long.parseLong(line.substring(6).trim());
+                }
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // 非 Linux 平台不统计
+        }
+        return -1;
+    }
+}
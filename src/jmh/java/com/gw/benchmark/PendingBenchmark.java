@@ -0,0 +1,74 @@
+package com.gw.benchmark;
+
+import com.gw.core.reference.handler.Pending;
+import com.gw.core.reference.handler.PendingTable;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: 请求登记与响应匹配的开销
+ * <p>
+ * map 为旧实现（全局 AtomicInteger 分配序号 + ConcurrentHashMap&lt;Integer, ?&gt;），table 为连接内的 {@link PendingTable}。
+ * 建议配合 -prof gc 查看每次调用的分配
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class PendingBenchmark {
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final Map<Integer, Object> map = new ConcurrentHashMap<>();
+    private PendingTable table;
+
+    @Setup
+    public void setup() {
+        table = PendingTable.of(new EmbeddedChannel());
+    }
+
+    /**
+     * 每个线程复用一个登记对象，只测量登记与移除本身
+     */
+    @State(Scope.Thread)
+    public static class Call implements Pending {
+        private int sequenceId;
+
+        @Override
+        public int getSequenceId() {
+            return sequenceId;
+        }
+
+        @Override
+        public void setSequenceId(int sequenceId) {
+            this.sequenceId = sequenceId;
+        }
+
+        @Override
+        public void fail(Throwable cause) {
+        }
+    }
+
+    @Benchmark
+    public Object map(Call call) {
+        int id = sequence.incrementAndGet();
+        map.put(id, call);
+        return map.remove(id);
+    }
+
+    @Benchmark
+    public Object table(Call call) {
+        int id = table.add(call);
+        return table.remove(id);
+    }
+}
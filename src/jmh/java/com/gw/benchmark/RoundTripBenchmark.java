@@ -0,0 +1,104 @@
+package com.gw.benchmark;
+
+import com.gw.core.config.Config;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 回环地址上客户端到 RpcServer 的完整往返，按正文大小与并发度组合
+ * <p>
+ * call 为单次同步调用，SampleTime 模式输出 p50/p90/p99/p99.9 延迟，并发线程数用 -t 调整；
+ * pipelined 由单个线程一次发出 window 个异步调用后等待全部完成，calls 列为每秒完成的调用数。
+ * 客户端与服务端在同一进程内，-prof gc 的分配量为两端之和
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:55
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    private static final int PORT = 18082;
+
+    @Param({"Binary"})
+    private String algorithm;
+
+    @Param({"16", "1024", "16384"})
+    private int payloadSize;
+
+    private RpcServer server;
+    private HelloService service;
+    private HelloService asyncService;
+    private String name;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("serializer.algorithm", algorithm);
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("server.port", String.valueOf(PORT));
+        Config.reload();
+        server = new RpcServer(PORT);
+        server.start();
+        service = RpcServiceProxy.getProxyService(HelloService.class);
+        asyncService = RpcServiceProxy.getAsyncProxyService(HelloService.class);
+        StringBuilder builder = new StringBuilder(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        name = builder.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RpcConnectionPool.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    public String call() {
+        return service.sayHello(name);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object pipelined(Window window) {
+        CompletableFuture<?>[] futures = window.futures;
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = asyncService.sayHelloAsync(name);
+        }
+        window.calls += futures.length;
+        return CompletableFuture.allOf(futures).join();
+    }
+
+    /**
+     * 单个线程同时在途的调用数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Window {
+
+        @Param({"1", "16", "128"})
+        private int window;
+
+        private CompletableFuture<?>[] futures;
+
+        public long calls;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            futures = new CompletableFuture<?>[window];
+            calls = 0;
+        }
+    }
+}
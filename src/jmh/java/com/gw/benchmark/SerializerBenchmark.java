@@ -0,0 +1,81 @@
+package com.gw.benchmark;
+
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.protocol.Serializer;
+import com.gw.core.service.HelloService;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 各序列化算法的编解码开销，配合 -prof gc 查看每次调用的分配量
+ * <p>
+ * jsonUncached* 复现了旧实现（每次调用新建 Gson），作为缓存前的对照
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 11:05
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"Java", "Json", "Hessian", "Binary"})
+    private Serializer.Algorithm algorithm;
+
+    private RpcRequestMessage request;
+    private byte[] bytes;
+    private byte[] jsonBytes;
+    private ByteBuf buffer;
+
+    @Setup
+    public void setup() throws Exception {
+        request = new RpcRequestMessage(1, HelloService.class.getName(), "sayHello",
+                String.class, new Class[]{String.class}, new Object[]{"yanan"});
+        bytes = algorithm.serialize(request);
+        jsonBytes = Serializer.Algorithm.Json.serialize(request);
+        buffer = PooledByteBufAllocator.DEFAULT.directBuffer(1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        buffer.release();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return algorithm.serialize(request);
+    }
+
+    @Benchmark
+    public RpcRequestMessage deserialize() {
+        return algorithm.deserialize(RpcRequestMessage.class, bytes);
+    }
+
+    @Benchmark
+    public ByteBuf serializeToByteBuf() {
+        buffer.clear();
+        algorithm.serialize(request, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public byte[] jsonUncachedSerialize() {
+        Gson gson = new GsonBuilder().registerTypeAdapter(Class.class, new Serializer.ClassCodec()).create();
+        return gson.toJson(request).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public RpcRequestMessage jsonUncachedDeserialize() {
+        Gson gson = new GsonBuilder().registerTypeAdapter(Class.class, new Serializer.ClassCodec()).create();
+        return gson.fromJson(new String(jsonBytes, StandardCharsets.UTF_8), RpcRequestMessage.class);
+    }
+}
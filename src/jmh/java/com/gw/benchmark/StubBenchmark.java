@@ -0,0 +1,74 @@
+package com.gw.benchmark;
+
+import com.gw.core.config.Config;
+import com.gw.core.reference.AbstractRpcStub;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 客户端调用入口的开销，proxy 为 JDK 动态代理，stub 为 @RpcStub 生成的存根
+ * <p>
+ * cached 调用开启了结果缓存的 sayHello，命中后不经过网络，只剩方法分发、参数装箱与缓存查找，
+ * 两者之差即为调用入口本身的开销；call 为回环地址上的完整往返，用于对照入口开销在一次调用中的占比。
+ * 存根只在 stub profile 下生成：mvn -Pjmh,stub test-compile exec:exec -Djmh.args="StubBenchmark"
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 23:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StubBenchmark {
+
+    private static final int PORT = 18084;
+
+    @Param({"proxy", "stub"})
+    private String dispatch;
+
+    private RpcServer server;
+    private HelloService service;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("serializer.algorithm", "Binary");
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("server.port", String.valueOf(PORT));
+        System.setProperty("client.stub.enabled", String.valueOf("stub".equals(dispatch)));
+        System.setProperty("client.cache." + HelloService.class.getName() + ".sayHello.ttl", String.valueOf(TimeUnit.HOURS.toMillis(1)));
+        Config.reload();
+        server = new RpcServer(PORT);
+        server.start();
+        service = RpcServiceProxy.getProxyService(HelloService.class);
+        boolean stub = service instanceof AbstractRpcStub;
+        if (stub != "stub".equals(dispatch) || stub == Proxy.isProxyClass(service.getClass())) {
+            throw new IllegalStateException("unexpected client " + service.getClass());
+        }
+        service.sayHello("yanan");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RpcConnectionPool.shutdown();
+        server.close();
+    }
+
+    @Benchmark
+    public String cached() {
+        return service.sayHello("yanan");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String call() {
+        return service.sayHelloAfter("yanan", 0);
+    }
+}
@@ -1,35 +1,112 @@
 package com.gw.core.config;
 
+import com.gw.core.protocol.Compression;
 import com.gw.core.protocol.Serializer;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.server.RpcExecutors;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Properties;
+import java.util.*;
 
 /**
  * Description: 配置类
+ * <p>
+ * application.properties 只读取一次，与环境变量、JVM 系统属性合并为不可变的快照，优先级 系统属性 > 环境变量 > 文件。
+ * 环境变量名为 GW_RPC_ 加配置项名的大写形式，非字母数字替换为下划线，如 server.port 对应 GW_RPC_SERVER_PORT。
+ * 各组件创建时读取所需配置，运行中修改系统属性后须调用 {@link #reload()}，之后创建的组件才会使用新值
  *
  * @author LinHuiBa-YanAn
  * @date 2023/8/7 20:31
  */
 public class Config {
-    static Properties properties;
+
+    private static final String ENV_PREFIX = "GW_RPC_";
+
+    private static final Properties FILE = new Properties();
     static {
         try (InputStream in = Config.class.getResourceAsStream("/application.properties")) {
-            properties = new Properties();
-            properties.load(in);
+            FILE.load(in);
         } catch (IOException e) {
             throw new ExceptionInInitializerError(e);
         }
     }
 
+    private static volatile Snapshot snapshot = new Snapshot();
+
+    /**
+     * 按当前的环境变量与系统属性重新生成配置快照
+     */
+    public static void reload() {
+        snapshot = new Snapshot();
+    }
+
+    /**
+     * 读取配置项
+     * @param key 配置项
+     * @return 配置值
+     */
+    private static String getProperty(String key) {
+        return snapshot.get(key);
+    }
+
+    private static String environmentName(String key) {
+        StringBuilder name = new StringBuilder(ENV_PREFIX.length() + key.length()).append(ENV_PREFIX);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            name.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        return name.toString();
+    }
+
+    /**
+     * 某一时刻合并后的配置，每条消息都要读取的配置项预先解析为对应类型
+     */
+    private static final class Snapshot {
+
+        private final Map<String, String> values;
+        /**
+         * GW_RPC_ 开头的环境变量，用于文件中没有的配置项，如按接口配置的超时
+         */
+        private final Map<String, String> environment;
+        private final Serializer.Algorithm serializerAlgorithm;
+
+        Snapshot() {
+            Map<String, String> environment = new HashMap<>();
+            System.getenv().forEach((name, value) -> {
+                if (name.startsWith(ENV_PREFIX)) {
+                    environment.put(name, value);
+                }
+            });
+            Map<String, String> values = new HashMap<>();
+            for (String key : FILE.stringPropertyNames()) {
+                values.put(key, environment.getOrDefault(environmentName(key), FILE.getProperty(key)));
+            }
+            Properties system = System.getProperties();
+            for (String key : system.stringPropertyNames()) {
+                values.put(key, system.getProperty(key));
+            }
+            this.values = Collections.unmodifiableMap(values);
+            this.environment = Collections.unmodifiableMap(environment);
+            String algorithm = get("serializer.algorithm");
+            this.serializerAlgorithm = algorithm == null ? Serializer.Algorithm.Java : Serializer.Algorithm.valueOf(algorithm);
+        }
+
+        String get(String key) {
+            String value = values.get(key);
+            if (value == null && !environment.isEmpty()) {
+                value = environment.get(environmentName(key));
+            }
+            return value;
+        }
+    }
 
     /**
      * 获取项目端口号
      * @return 端口号
      */
     public static int getProjectPort() {
-        String value = properties.getProperty("project.port");
+        String value = getProperty("project.port");
         if(value == null) {
             return 8080;
         } else {
@@ -42,7 +119,7 @@ public class Config {
      * @return 端口号
      */
     public static String getServerIp() {
-        String value = properties.getProperty("server.ip");
+        String value = getProperty("server.ip");
         if(value == null) {
             return "127.0.0.1";
         } else {
@@ -55,7 +132,7 @@ public class Config {
      * @return 端口号
      */
     public static int getServerPort() {
-        String value = properties.getProperty("server.port");
+        String value = getProperty("server.port");
         if(value == null) {
             return 8080;
         } else {
@@ -64,15 +141,585 @@ public class Config {
     }
 
     /**
-     * 获取序列化方式
+     * 获取序列化方式，每条消息编码时读取，生成快照时已解析
      * @return 序列化方式枚举
      */
     public static Serializer.Algorithm getSerializerAlgorithm() {
-        String value = properties.getProperty("serializer.algorithm");
+        return snapshot.serializerAlgorithm;
+    }
+
+    /**
+     * 获取服务接口的实现类，配置项为 接口全限定名=实现类全限定名
+     * @param interfaceName 接口全限定名
+     * @return 实现类全限定名，未配置时为 null
+     */
+    public static String getServiceImplementation(String interfaceName) {
+        return getProperty(interfaceName);
+    }
+
+    /**
+     * 获取配置文件与系统属性中配置了实现类的服务接口，即键与值都是类全限定名形式的配置项
+     * @return 接口全限定名
+     */
+    public static Set<String> getServiceInterfaces() {
+        Set<String> interfaces = new TreeSet<>();
+        snapshot.values.forEach((key, value) -> {
+            if (isClassName(key) && isClassName(value)) {
+                interfaces.add(key);
+            }
+        });
+        return interfaces;
+    }
+
+    /**
+     * 形如 包名.类名：至少两段、各段为合法标识符、最后一段以大写字母开头
+     */
+    private static boolean isClassName(String name) {
+        int simpleName = name.lastIndexOf('.') + 1;
+        if (simpleName == 0 || simpleName == name.length() || !Character.isUpperCase(name.charAt(simpleName))) {
+            return false;
+        }
+        for (String part : name.split("\\.", -1)) {
+            if (part.isEmpty() || !Character.isJavaIdentifierStart(part.charAt(0))) {
+                return false;
+            }
+            for (int i = 1; i < part.length(); i++) {
+                if (!Character.isJavaIdentifierPart(part.charAt(i))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取客户端每个服务端地址的连接数
+     * @return 连接数
+     */
+    public static int getClientPoolSize() {
+        String value = getProperty("client.pool.size");
+        if(value == null) {
+            return Runtime.getRuntime().availableProcessors();
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取客户端连接选择策略
+     * @return 连接选择策略枚举
+     */
+    public static RpcConnectionPool.Strategy getClientPoolStrategy() {
+        String value = getProperty("client.pool.strategy");
+        if(value == null) {
+            return RpcConnectionPool.Strategy.LeastPending;
+        } else {
+            return RpcConnectionPool.Strategy.valueOf(value);
+        }
+    }
+
+    /**
+     * 是否在连接内以方法编号代替完整方法签名
+     * @return 是否启用
+     */
+    public static boolean isMethodIdIntern() {
+        String value = getProperty("protocol.methodId.intern");
+        if(value == null) {
+            return true;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 获取服务端业务执行方式
+     * @return 执行方式枚举
+     */
+    public static RpcExecutors.Type getServerExecutorType() {
+        String value = getProperty("server.executor.type");
+        if(value == null) {
+            return RpcExecutors.Type.Pool;
+        } else {
+            return RpcExecutors.Type.valueOf(value);
+        }
+    }
+
+    /**
+     * 获取服务端业务线程数
+     * @return 线程数
+     */
+    public static int getServerExecutorThreads() {
+        String value = getProperty("server.executor.threads");
+        if(value == null) {
+            return Runtime.getRuntime().availableProcessors() * 2;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取单个服务的独立线程数
+     * @param interfaceName 接口全限定名
+     * @return 线程数，未配置时为 0，表示使用共享执行器
+     */
+    public static int getServerExecutorThreads(String interfaceName) {
+        String value = getProperty("server.executor.service." + interfaceName + ".threads");
+        if(value == null) {
+            return 0;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取服务端业务线程池的排队上限，超出后拒绝请求
+     * @return 排队上限
+     */
+    public static int getServerExecutorQueue() {
+        String value = getProperty("server.executor.queue");
+        if(value == null) {
+            return 1024;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 是否启用服务端自适应并发限制，超出上限的请求立即返回过载
+     * @return 是否启用
+     */
+    public static boolean isServerLimitEnabled() {
+        String value = getProperty("server.limit.enabled");
+        if(value == null) {
+            return false;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 获取并发上限的初始值
+     * @return 初始上限
+     */
+    public static int getServerLimitInitial() {
+        String value = getProperty("server.limit.initial");
+        if(value == null) {
+            return 20;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取并发上限的下限
+     * @return 下限
+     */
+    public static int getServerLimitMin() {
+        String value = getProperty("server.limit.min");
+        if(value == null) {
+            return 4;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取并发上限的上限
+     * @return 上限
+     */
+    public static int getServerLimitMax() {
+        String value = getProperty("server.limit.max");
+        if(value == null) {
+            return 1000;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 是否启用 epoll 传输（仅 Linux 可用，不可用时退回 NIO）
+     * @return 是否启用
+     */
+    public static boolean isTransportEpoll() {
+        String value = getProperty("transport.epoll");
+        if(value == null) {
+            return false;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 是否开启 SO_REUSEPORT（仅 epoll）
+     * @return 是否开启
+     */
+    public static boolean isTransportReusePort() {
+        String value = getProperty("transport.reusePort");
+        if(value == null) {
+            return false;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 是否开启 TCP_NODELAY
+     * @return 是否开启
+     */
+    public static boolean isTransportTcpNoDelay() {
+        String value = getProperty("transport.tcpNoDelay");
+        if(value == null) {
+            return true;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 获取 SO_SNDBUF，0 表示使用系统默认值
+     * @return SO_SNDBUF
+     */
+    public static int getTransportSendBufferSize() {
+        String value = getProperty("transport.sendBufferSize");
+        if(value == null) {
+            return 0;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取 SO_RCVBUF，0 表示使用系统默认值
+     * @return SO_RCVBUF
+     */
+    public static int getTransportReceiveBufferSize() {
+        String value = getProperty("transport.receiveBufferSize");
+        if(value == null) {
+            return 0;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取写缓冲低水位
+     * @return 写缓冲低水位
+     */
+    public static int getTransportWriteBufferLowWaterMark() {
+        String value = getProperty("transport.writeBuffer.lowWaterMark");
+        if(value == null) {
+            return 32 * 1024;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取写缓冲高水位，超出后 Channel 变为不可写
+     * @return 写缓冲高水位
+     */
+    public static int getTransportWriteBufferHighWaterMark() {
+        String value = getProperty("transport.writeBuffer.highWaterMark");
+        if(value == null) {
+            return 64 * 1024;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 是否合并 flush：读循环内及同一批任务中的多次 flush 合并为一次
+     * @return 是否启用
+     */
+    public static boolean isFlushConsolidation() {
+        String value = getProperty("flush.consolidation.enabled");
+        if(value == null) {
+            return true;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 获取合并 flush 的上限，累计这么多次 flush 后立即真正 flush 一次
+     * @return 次数
+     */
+    public static int getFlushConsolidationLimit() {
+        String value = getProperty("flush.consolidation.limit");
+        if(value == null) {
+            return 64;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取单帧最大长度（含 16 字节协议头），超过该长度的消息分块发送；两端需配置一致
+     * @return 字节数
+     */
+    public static int getProtocolMaxFrameLength() {
+        String value = getProperty("protocol.maxFrameLength");
+        if(value == null) {
+            return 1024 * 1024;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取单条消息（分块聚合后、解压后）的最大长度
+     * @return 字节数
+     */
+    public static int getProtocolMaxMessageLength() {
+        String value = getProperty("protocol.maxMessageLength");
+        if(value == null) {
+            return 64 * 1024 * 1024;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取正文压缩算法
+     * @return 压缩算法
+     */
+    public static Compression getProtocolCompression() {
+        String value = getProperty("protocol.compression");
+        if(value == null) {
+            return Compression.None;
+        } else {
+            return Compression.valueOf(value);
+        }
+    }
+
+    /**
+     * 获取启用压缩的正文长度阈值，小于该长度的正文不压缩
+     * @return 字节数
+     */
+    public static int getProtocolCompressionThreshold() {
+        String value = getProperty("protocol.compression.threshold");
+        if(value == null) {
+            return 4096;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取服务端流式响应每块包含的元素数
+     * @return 元素数
+     */
+    public static int getServerStreamChunkSize() {
+        String value = getProperty("server.stream.chunkSize");
+        if(value == null) {
+            return 64;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取服务端单个流已写出但尚未写入套接字的块数上限，达到上限或连接不可写时暂停拉取
+     * @return 块数
+     */
+    public static int getServerStreamMaxInFlight() {
+        String value = getProperty("server.stream.maxInFlight");
+        if(value == null) {
+            return 16;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取客户端单个流的接收窗口：服务端在未被消费的块达到该数目后暂停写出，调用方消费一半后追加
+     * @return 块数
+     */
+    public static int getClientStreamBuffer() {
+        String value = getProperty("client.stream.buffer");
+        if(value == null) {
+            return 32;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取调用超时时间，依次查找 rpc.timeout.接口全限定名.方法名、rpc.timeout.接口全限定名、rpc.timeout
+     * <p>
+     * 默认不超时，与未引入超时之前的行为一致；需要时按接口或方法单独配置，
+     * 流式方法的超时作用于相邻两块之间的等待，为它们配置时须大于消费方处理一块的时间
+     * @param interfaceName 接口全限定名
+     * @param methodName 方法名
+     * @return 毫秒，不大于 0 表示不超时
+     */
+    public static long getRpcTimeout(String interfaceName, String methodName) {
+        String value = getProperty("rpc.timeout." + interfaceName + "." + methodName);
+        if(value == null) {
+            value = getProperty("rpc.timeout." + interfaceName);
+        }
+        if(value == null) {
+            value = getProperty("rpc.timeout");
+        }
+        if(value == null) {
+            return 0;
+        } else {
+            return Long.parseLong(value);
+        }
+    }
+
+    /**
+     * 获取客户端单条连接上同时等待回应的请求数上限，向上取 2 的幂
+     * @return 请求数
+     */
+    public static int getClientPendingCapacity() {
+        String value = getProperty("client.pending.capacity");
+        if(value == null) {
+            return 4096;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 是否采集调用、编解码等指标
+     * @return 是否采集
+     */
+    public static boolean isMetricsEnabled() {
+        String value = getProperty("metrics.enabled");
+        if(value == null) {
+            return true;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 是否将指标注册为 JMX MXBean
+     * @return 是否注册
+     */
+    public static boolean isMetricsJmxEnabled() {
+        String value = getProperty("metrics.jmx.enabled");
+        if(value == null) {
+            return true;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 获取指标上报器，实现 {@link com.gw.core.metrics.MetricsReporter} 的类全限定名
+     * @return 类名
+     */
+    public static String getMetricsReporter() {
+        String value = getProperty("metrics.reporter");
+        if(value == null) {
+            return "com.gw.core.metrics.LoggingReporter";
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * 获取指标上报间隔
+     * @return 秒，不大于 0 表示不定时上报
+     */
+    public static int getMetricsReportInterval() {
+        String value = getProperty("metrics.report.interval");
+        if(value == null) {
+            return 0;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取消息跟踪抽样，全部连接每 N 条消息随机记录一条
+     * @return N，0 表示关闭
+     */
+    public static int getTraceSample() {
+        String value = getProperty("trace.sample");
+        if(value == null) {
+            return 0;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取服务提供方注册文件，未配置时以 server.ip、server.port 作为唯一提供方
+     * @return 文件路径
+     */
+    public static String getRegistryFile() {
+        return getProperty("registry.file");
+    }
+
+    /**
+     * 获取客户端负载均衡方式
+     * @return 内置名称或类全限定名
+     */
+    public static String getClientLoadBalance() {
+        String value = getProperty("client.loadbalance");
+        if(value == null) {
+            return "WeightedRandom";
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * 是否优先使用编译期生成的客户端存根（需以 stub profile 构建），关闭时一律使用 JDK 动态代理
+     * @return 是否启用
+     */
+    public static boolean isClientStubEnabled() {
+        String value = getProperty("client.stub.enabled");
+        if(value == null) {
+            return false;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * 获取一致性哈希负载均衡使用的参数下标
+     * @return 参数下标
+     */
+    public static int getClientLoadBalanceHashArgument() {
+        String value = getProperty("client.loadbalance.hash.argument");
+        if(value == null) {
+            return 0;
+        } else {
+            return Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * 获取客户端结果缓存的存活时间，配置后覆盖方法上的 {@link com.gw.core.reference.cache.Cacheable}
+     * @param interfaceName 接口全限定名
+     * @param methodName 方法名
+     * @return 毫秒，0 表示不缓存，-1 表示未配置
+     */
+    public static long getClientCacheTtl(String interfaceName, String methodName) {
+        String value = getProperty("client.cache." + interfaceName + "." + methodName + ".ttl");
+        if(value == null) {
+            return -1;
+        } else {
+            return Long.parseLong(value);
+        }
+    }
+
+    /**
+     * 获取客户端结果缓存最多缓存的参数组合数
+     * @param interfaceName 接口全限定名
+     * @param methodName 方法名
+     * @return 条目数，-1 表示未配置
+     */
+    public static long getClientCacheMaximumSize(String interfaceName, String methodName) {
+        String value = getProperty("client.cache." + interfaceName + "." + methodName + ".maximumSize");
         if(value == null) {
-            return Serializer.Algorithm.Java;
+            return -1;
         } else {
-            return Serializer.Algorithm.valueOf(value);
+            return Long.parseLong(value);
         }
     }
 }
@@ -25,6 +25,12 @@ public abstract class Message implements Serializable {
 
     public abstract int getMessageType();
 
+    /**
+     * 回收消息对象，发送方在编码完成后、接收方在处理完毕后调用，之后不得再访问该消息；未池化的消息为空操作
+     */
+    public void recycle() {
+    }
+
     /**
      * Rpc请求体 byte 值
      */
@@ -35,11 +41,29 @@ public abstract class Message implements Serializable {
      */
     public static final int RPC_MESSAGE_TYPE_RESPONSE = 1;
 
+    /**
+     * 批量Rpc请求体 byte 值
+     */
+    public static final int RPC_MESSAGE_TYPE_BATCH_REQUEST = 2;
+
+    /**
+     * 批量Rpc响应体 byte 值
+     */
+    public static final int RPC_MESSAGE_TYPE_BATCH_RESPONSE = 3;
+
+    /**
+     * 流式响应分块 byte 值
+     */
+    public static final int RPC_MESSAGE_TYPE_STREAM = 4;
+
     private static final Map<Integer, Class<? extends Message>> messageClasses = new HashMap<>();
 
     static {
         messageClasses.put(RPC_MESSAGE_TYPE_REQUEST, RpcRequestMessage.class);
         messageClasses.put(RPC_MESSAGE_TYPE_RESPONSE, RpcResponseMessage.class);
+        messageClasses.put(RPC_MESSAGE_TYPE_BATCH_REQUEST, RpcBatchRequestMessage.class);
+        messageClasses.put(RPC_MESSAGE_TYPE_BATCH_RESPONSE, RpcBatchResponseMessage.class);
+        messageClasses.put(RPC_MESSAGE_TYPE_STREAM, RpcStreamMessage.class);
     }
 
     /**
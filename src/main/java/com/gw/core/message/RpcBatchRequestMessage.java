@@ -0,0 +1,33 @@
+package com.gw.core.message;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: 批量Rpc请求体，多个请求合并在一帧内发送
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:10
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RpcBatchRequestMessage extends Message {
+    /**
+     * 请求列表，服务端按相同顺序返回响应
+     */
+    private List<RpcRequestMessage> requests = new ArrayList<>();
+    /**
+     * 服务端是否并行执行各请求
+     */
+    private boolean parallel;
+
+    @Override
+    public int getMessageType() {
+        return RPC_MESSAGE_TYPE_BATCH_REQUEST;
+    }
+}
@@ -0,0 +1,29 @@
+package com.gw.core.message;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: 批量Rpc响应体
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:10
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RpcBatchResponseMessage extends Message {
+    /**
+     * 响应列表，与请求顺序一致
+     */
+    private List<RpcResponseMessage> responses = new ArrayList<>();
+
+    @Override
+    public int getMessageType() {
+        return RPC_MESSAGE_TYPE_BATCH_RESPONSE;
+    }
+}
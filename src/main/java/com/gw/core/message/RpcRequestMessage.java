@@ -1,8 +1,13 @@
 package com.gw.core.message;
 
+import io.netty.util.Recycler;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
+import java.lang.reflect.Method;
+
 /**
  * Description: Rpc请求体
  *
@@ -10,9 +15,17 @@ import lombok.ToString;
  * @date 2023/8/7 20:39
  */
 @Getter
+@Setter
 @ToString(callSuper = true)
 public class RpcRequestMessage extends Message {
 
+    private static final Recycler<RpcRequestMessage> RECYCLER = new Recycler<RpcRequestMessage>() {
+        @Override
+        protected RpcRequestMessage newObject(Handle<RpcRequestMessage> handle) {
+            return new RpcRequestMessage(handle);
+        }
+    };
+
     /**
      * 调用的接口全限定名，服务端根据它找到实现
      */
@@ -33,6 +46,25 @@ public class RpcRequestMessage extends Message {
      * 方法参数值数组
      */
     private Object[] parameterValue;
+    /**
+     * 连接内分配的方法编号，0 表示未分配
+     * <p>
+     * 某方法在连接上首次调用时同时携带编号与完整签名，服务端据此登记；
+     * 此后只携带编号，接口名、方法名及类型均为 null
+     */
+    private int methodId;
+    /**
+     * 客户端调用的接口方法，仅在本地使用，不参与序列化
+     */
+    @ToString.Exclude
+    private transient Method method;
+    /**
+     * 对象池句柄，直接构造或反序列化得到的消息为 null，不回收
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient Recycler.Handle<RpcRequestMessage> handle;
 
     public RpcRequestMessage(int sequenceId, String interfaceName, String methodName, Class<?> returnType, Class[] parameterTypes, Object[] parameterValue) {
         super.setSequenceId(sequenceId);
@@ -41,6 +73,37 @@ public class RpcRequestMessage extends Message {
         this.returnType = returnType;
         this.parameterTypes = parameterTypes;
         this.parameterValue = parameterValue;
+        this.handle = null;
+    }
+
+    private RpcRequestMessage(Recycler.Handle<RpcRequestMessage> handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * 从对象池取出一个各字段为空的请求
+     *
+     * @return 请求
+     */
+    public static RpcRequestMessage newInstance() {
+        return RECYCLER.get();
+    }
+
+    @Override
+    public void recycle() {
+        if (handle == null) {
+            return;
+        }
+        setSequenceId(0);
+        setMessageType(0);
+        interfaceName = null;
+        methodName = null;
+        returnType = null;
+        parameterTypes = null;
+        parameterValue = null;
+        methodId = 0;
+        method = null;
+        handle.recycle(this);
     }
 
     @Override
@@ -1,6 +1,10 @@
 package com.gw.core.message;
 
+import io.netty.util.Recycler;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 
 /**
@@ -12,6 +16,14 @@ import lombok.ToString;
 @Data
 @ToString(callSuper = true)
 public class RpcResponseMessage extends Message {
+
+    private static final Recycler<RpcResponseMessage> RECYCLER = new Recycler<RpcResponseMessage>() {
+        @Override
+        protected RpcResponseMessage newObject(Handle<RpcResponseMessage> handle) {
+            return new RpcResponseMessage(handle);
+        }
+    };
+
     /**
      * 返回值
      */
@@ -20,9 +32,45 @@ public class RpcResponseMessage extends Message {
      * 异常值
      */
     private Exception exceptionValue;
+    /**
+     * 对象池句柄，直接构造或反序列化得到的消息为 null，不回收
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final transient Recycler.Handle<RpcResponseMessage> handle;
+
+    public RpcResponseMessage() {
+        this.handle = null;
+    }
+
+    private RpcResponseMessage(Recycler.Handle<RpcResponseMessage> handle) {
+        this.handle = handle;
+    }
+
+    /**
+     * 从对象池取出一个各字段为空的响应
+     *
+     * @return 响应
+     */
+    public static RpcResponseMessage newInstance() {
+        return RECYCLER.get();
+    }
 
     @Override
     public int getMessageType() {
         return RPC_MESSAGE_TYPE_RESPONSE;
     }
+
+    @Override
+    public void recycle() {
+        if (handle == null) {
+            return;
+        }
+        setSequenceId(0);
+        setMessageType(0);
+        returnValue = null;
+        exceptionValue = null;
+        handle.recycle(this);
+    }
 }
@@ -0,0 +1,44 @@
+package com.gw.core.message;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: 流式响应分块，序号与请求一致
+ * <p>
+ * 返回 {@link java.util.Iterator} 的服务方法以若干分块返回结果，最后一块 end 为 true；出错时以携带异常的结束块终止。
+ * 客户端也以同一消息控制流：credit 为追加允许服务端写出的块数，end 为 true 表示取消
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:40
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class RpcStreamMessage extends Message {
+    /**
+     * 本块包含的元素
+     */
+    private List<Object> items = new ArrayList<>();
+    /**
+     * 是否为最后一块
+     */
+    private boolean end;
+    /**
+     * 客户端发往服务端时为追加的可写出块数
+     */
+    private int credit;
+    /**
+     * 异常值
+     */
+    private Exception exceptionValue;
+
+    @Override
+    public int getMessageType() {
+        return RPC_MESSAGE_TYPE_STREAM;
+    }
+}
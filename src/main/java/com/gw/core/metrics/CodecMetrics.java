@@ -0,0 +1,109 @@
+package com.gw.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: 单个序列化算法的编解码指标：消息数、线上字节数（含协议头，压缩后）、编解码耗时
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:30
+ */
+public class CodecMetrics implements CodecMetricsMXBean {
+
+    private final String algorithm;
+    private final LongAdder messagesOut = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder messagesIn = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LatencyHistogram encodeTime = new LatencyHistogram();
+    private final LatencyHistogram decodeTime = new LatencyHistogram();
+
+    CodecMetrics(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * 编码完成一条消息
+     *
+     * @param bytes 线上字节数
+     * @param nanos 耗时
+     */
+    public void encoded(int bytes, long nanos) {
+        messagesOut.increment();
+        bytesOut.add(bytes);
+        encodeTime.record(nanos);
+    }
+
+    /**
+     * 收到一帧，分块消息的每一帧都计入字节数
+     *
+     * @param bytes 线上字节数
+     */
+    public void received(int bytes) {
+        bytesIn.add(bytes);
+    }
+
+    /**
+     * 解码完成一条消息
+     *
+     * @param nanos 耗时
+     */
+    public void decoded(long nanos) {
+        messagesIn.increment();
+        decodeTime.record(nanos);
+    }
+
+    public LatencyHistogram getEncodeTime() {
+        return encodeTime;
+    }
+
+    public LatencyHistogram getDecodeTime() {
+        return decodeTime;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public long getMessagesOut() {
+        return messagesOut.sum();
+    }
+
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    @Override
+    public long getMessagesIn() {
+        return messagesIn.sum();
+    }
+
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    @Override
+    public double getEncodeMeanMicros() {
+        return encodeTime.snapshot().mean(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getEncodeP99Micros() {
+        return encodeTime.snapshot().percentile(0.99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getDecodeMeanMicros() {
+        return decodeTime.snapshot().mean(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getDecodeP99Micros() {
+        return decodeTime.snapshot().percentile(0.99, TimeUnit.MICROSECONDS);
+    }
+}
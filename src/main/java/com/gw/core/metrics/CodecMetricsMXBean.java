@@ -0,0 +1,28 @@
+package com.gw.core.metrics;
+
+/**
+ * Description: 单个序列化算法的编解码指标，时间单位为微秒
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:30
+ */
+public interface CodecMetricsMXBean {
+
+    String getAlgorithm();
+
+    long getMessagesOut();
+
+    long getBytesOut();
+
+    long getMessagesIn();
+
+    long getBytesIn();
+
+    double getEncodeMeanMicros();
+
+    double getEncodeP99Micros();
+
+    double getDecodeMeanMicros();
+
+    double getDecodeP99Micros();
+}
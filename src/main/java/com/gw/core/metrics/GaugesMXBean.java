@@ -0,0 +1,17 @@
+package com.gw.core.metrics;
+
+import java.util.Map;
+
+/**
+ * Description: 瞬时量，如业务线程池队列深度、客户端等待回应的请求数
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:30
+ */
+public interface GaugesMXBean {
+
+    /**
+     * @return 名称 -> 当前值
+     */
+    Map<String, Long> getValues();
+}
@@ -0,0 +1,158 @@
+package com.gw.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: 无锁的对数-线性分桶延迟直方图，记录纳秒值
+ * <p>
+ * 与 HdrHistogram 的分桶方式相同：每个 2 的幂区间再均分为 8 个子桶，相对误差不超过 12.5%，
+ * 记录只是一次数组下标计算加原子自增，不分配对象；分位数由 {@link Snapshot} 计算
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:20
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * 记录一个值
+     *
+     * @param nanos 纳秒，负数按 0 记录
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(index(value));
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * 当前的累计快照；记录与快照并发时个别值可能只计入计数或总和之一，不影响统计用途
+     *
+     * @return 快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, total.sum(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶内值的下界
+     */
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long total;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long total, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        /**
+         * 与更早的快照相减，得到两次快照之间的区间统计；区间内的最大值无法还原，沿用累计最大值
+         *
+         * @param earlier 更早的快照，null 时返回自身
+         * @return 区间快照
+         */
+        public Snapshot since(Snapshot earlier) {
+            if (earlier == null) {
+                return this;
+            }
+            long[] delta = new long[counts.length];
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(delta, count - earlier.count, total - earlier.total, max);
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 平均值
+         *
+         * @param unit 单位
+         * @return 平均值，无记录时为 0
+         */
+        public double mean(TimeUnit unit) {
+            return count == 0 ? 0 : (double) total / count / unit.toNanos(1);
+        }
+
+        /**
+         * 最大值
+         *
+         * @param unit 单位
+         * @return 最大值
+         */
+        public double max(TimeUnit unit) {
+            return (double) max / unit.toNanos(1);
+        }
+
+        /**
+         * 分位数，取所在桶的中点
+         *
+         * @param quantile 0 到 1 之间
+         * @param unit     单位
+         * @return 分位值，无记录时为 0
+         */
+        public double percentile(double quantile, TimeUnit unit) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long low = lowerBound(i);
+                    long high = i + 1 < counts.length ? lowerBound(i + 1) : low;
+                    double value = Math.min((low + high) / 2.0, max);
+                    return value / unit.toNanos(1);
+                }
+            }
+            return (double) max / unit.toNanos(1);
+        }
+    }
+}
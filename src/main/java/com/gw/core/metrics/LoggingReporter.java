@@ -0,0 +1,67 @@
+package com.gw.core.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 以日志输出指标，延迟与计数为两次上报之间的区间值，没有调用的方法不输出
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:50
+ */
+@Slf4j
+public class LoggingReporter implements MetricsReporter {
+
+    /**
+     * 上次上报时的直方图快照，只在上报线程上访问
+     */
+    private final Map<LatencyHistogram, LatencyHistogram.Snapshot> previous = new HashMap<>();
+    private final Map<CodecMetrics, long[]> previousBytes = new HashMap<>();
+
+    @Override
+    public void report(Collection<MethodMetrics> methods, Collection<CodecMetrics> codecs, Map<String, Long> gauges) {
+        for (MethodMetrics method : methods) {
+            LatencyHistogram.Snapshot interval = interval(method.getLatency());
+            if (interval.getCount() == 0 && method.getInFlight() == 0) {
+                continue;
+            }
+            log.info("rpc {} {} calls={} inFlight={} errors={} mean={}us p50={}us p99={}us p999={}us",
+                    method.getSide(), method.getName(), interval.getCount(), method.getInFlight(), method.getErrors(),
+                    micros(interval.mean(TimeUnit.NANOSECONDS)),
+                    micros(interval.percentile(0.5, TimeUnit.NANOSECONDS)),
+                    micros(interval.percentile(0.99, TimeUnit.NANOSECONDS)),
+                    micros(interval.percentile(0.999, TimeUnit.NANOSECONDS)));
+        }
+        for (CodecMetrics codec : codecs) {
+            LatencyHistogram.Snapshot encode = interval(codec.getEncodeTime());
+            LatencyHistogram.Snapshot decode = interval(codec.getDecodeTime());
+            long[] bytes = {codec.getBytesOut(), codec.getBytesIn()};
+            long[] last = previousBytes.getOrDefault(codec, new long[2]);
+            previousBytes.put(codec, bytes);
+            if (encode.getCount() == 0 && decode.getCount() == 0) {
+                continue;
+            }
+            log.info("codec {} out={} msgs/{} bytes encode p99={}us, in={} msgs/{} bytes decode p99={}us",
+                    codec.getAlgorithm(), encode.getCount(), bytes[0] - last[0], micros(encode.percentile(0.99, TimeUnit.NANOSECONDS)),
+                    decode.getCount(), bytes[1] - last[1], micros(decode.percentile(0.99, TimeUnit.NANOSECONDS)));
+        }
+        if (!gauges.isEmpty()) {
+            log.info("gauges {}", gauges);
+        }
+    }
+
+    private LatencyHistogram.Snapshot interval(LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot current = histogram.snapshot();
+        LatencyHistogram.Snapshot interval = current.since(previous.get(histogram));
+        previous.put(histogram, current);
+        return interval;
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1f", nanos / 1000);
+    }
+}
@@ -0,0 +1,109 @@
+package com.gw.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: 单个服务方法的调用指标：延迟直方图、在途数、失败数
+ * <p>
+ * 服务端从请求开始执行到生成响应计时，客户端从发出请求到收到响应、超时或失败计时
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:30
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+
+    private final String side;
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+
+    MethodMetrics(String side, String name) {
+        this.side = side;
+        this.name = name;
+    }
+
+    /**
+     * 调用开始
+     *
+     * @return 开始时间，交给 {@link #stop}
+     */
+    public long start() {
+        inFlight.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * 调用结束，每次 {@link #start} 对应一次
+     *
+     * @param startNanos 开始时间
+     * @param error      是否失败
+     */
+    public void stop(long startNanos, boolean error) {
+        inFlight.decrement();
+        latency.record(System.nanoTime() - startNanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getSide() {
+        return side;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.snapshot().getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.snapshot().mean(TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.snapshot().percentile(0.5, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latency.snapshot().percentile(0.9, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.snapshot().percentile(0.99, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.snapshot().percentile(0.999, TimeUnit.MICROSECONDS);
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.snapshot().max(TimeUnit.MICROSECONDS);
+    }
+}
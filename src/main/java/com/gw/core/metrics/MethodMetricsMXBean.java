@@ -0,0 +1,38 @@
+package com.gw.core.metrics;
+
+/**
+ * Description: 单个服务方法的调用指标，时间单位为微秒
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:30
+ */
+public interface MethodMetricsMXBean {
+
+    /**
+     * @return 服务端（server）或客户端（client）
+     */
+    String getSide();
+
+    /**
+     * @return 接口全限定名.方法名
+     */
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getInFlight();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
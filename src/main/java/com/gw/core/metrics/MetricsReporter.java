@@ -0,0 +1,24 @@
+package com.gw.core.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Description: 指标上报器，由 {@link RpcMetrics} 按 metrics.report.interval 定时调用
+ * <p>
+ * 实现类需有无参构造器，通过 metrics.reporter 配置类名，也可用 {@link RpcMetrics#addReporter} 以代码注册
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:35
+ */
+public interface MetricsReporter {
+
+    /**
+     * 上报一次，在上报线程上调用，指标为累计值
+     *
+     * @param methods 服务端与客户端的方法指标
+     * @param codecs  各序列化算法的编解码指标
+     * @param gauges  瞬时量
+     */
+    void report(Collection<MethodMetrics> methods, Collection<CodecMetrics> codecs, Map<String, Long> gauges);
+}
@@ -0,0 +1,190 @@
+package com.gw.core.metrics;
+
+import com.gw.core.config.Config;
+import com.gw.core.protocol.Serializer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Description: RPC 指标入口
+ * <p>
+ * 指标在首次使用时创建并注册为 JMX MXBean（域 com.gw.rpc），配置 metrics.report.interval 后定时交给 {@link MetricsReporter}。
+ * 采集只有原子累加与 System.nanoTime，不加锁、不分配对象；metrics.enabled=false 时调用方跳过采集
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:40
+ */
+@Slf4j
+public class RpcMetrics {
+
+    private static final String DOMAIN = "com.gw.rpc";
+    private static final String SERVER = "server";
+    private static final String CLIENT = "client";
+
+    private static final boolean ENABLED = Config.isMetricsEnabled();
+    private static final boolean JMX = Config.isMetricsJmxEnabled();
+
+    /**
+     * 端:接口全限定名.方法名 -> 方法指标，同名重载共用
+     */
+    private static final Map<String, MethodMetrics> METHODS = new ConcurrentHashMap<>();
+
+    /**
+     * 客户端按接口方法缓存，调用时不必拼接名称
+     */
+    private static final Map<Method, MethodMetrics> CLIENT_METHODS = new ConcurrentHashMap<>();
+
+    private static final CodecMetrics[] CODECS = new CodecMetrics[Serializer.Algorithm.values().length];
+
+    private static final Map<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService reporterExecutor;
+
+    static {
+        for (Serializer.Algorithm algorithm : Serializer.Algorithm.values()) {
+            CodecMetrics codec = new CodecMetrics(algorithm.name());
+            CODECS[algorithm.ordinal()] = codec;
+            register("type=Codec,algorithm=" + algorithm.name(), codec);
+        }
+        register("type=Gauges", (GaugesMXBean) RpcMetrics::gauges);
+        int interval = Config.getMetricsReportInterval();
+        if (ENABLED && interval > 0) {
+            try {
+                MetricsReporter reporter = (MetricsReporter) Class.forName(Config.getMetricsReporter()).getDeclaredConstructor().newInstance();
+                addReporter(reporter, interval, TimeUnit.SECONDS);
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                log.warn("failed to create metrics reporter {}", Config.getMetricsReporter(), e);
+            }
+        }
+    }
+
+    /**
+     * 是否采集指标
+     *
+     * @return 是否采集
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * 服务端方法指标
+     *
+     * @param interfaceName 接口全限定名
+     * @param methodName    方法名
+     * @return 方法指标
+     */
+    public static MethodMetrics server(String interfaceName, String methodName) {
+        return method(SERVER, interfaceName + "." + methodName);
+    }
+
+    /**
+     * 客户端方法指标
+     *
+     * @param method 接口方法
+     * @return 方法指标
+     */
+    public static MethodMetrics client(Method method) {
+        MethodMetrics metrics = CLIENT_METHODS.get(method);
+        if (metrics == null) {
+            metrics = method(CLIENT, method.getDeclaringClass().getName() + "." + method.getName());
+            CLIENT_METHODS.put(method, metrics);
+        }
+        return metrics;
+    }
+
+    /**
+     * 序列化算法的编解码指标
+     *
+     * @param algorithm 序列化算法
+     * @return 编解码指标
+     */
+    public static CodecMetrics codec(Serializer.Algorithm algorithm) {
+        return CODECS[algorithm.ordinal()];
+    }
+
+    /**
+     * 登记瞬时量，同名覆盖
+     *
+     * @param name  名称
+     * @param value 取值函数，在 JMX 读取或上报线程上调用
+     */
+    public static void gauge(String name, LongSupplier value) {
+        GAUGES.put(name, value);
+    }
+
+    /**
+     * 定时调用上报器
+     *
+     * @param reporter 上报器
+     * @param period   间隔
+     * @param unit     单位
+     */
+    public static synchronized void addReporter(MetricsReporter reporter, long period, TimeUnit unit) {
+        if (reporterExecutor == null) {
+            reporterExecutor = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("rpc-metrics", true));
+        }
+        reporterExecutor.scheduleAtFixedRate(() -> {
+            try {
+                reporter.report(methods(), Arrays.asList(CODECS), gauges());
+            } catch (RuntimeException e) {
+                log.warn("metrics reporter failed", e);
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * 已创建的方法指标
+     *
+     * @return 方法指标
+     */
+    public static Collection<MethodMetrics> methods() {
+        return Collections.unmodifiableCollection(METHODS.values());
+    }
+
+    /**
+     * 当前的瞬时量
+     *
+     * @return 名称 -> 当前值，按名称排序
+     */
+    public static Map<String, Long> gauges() {
+        Map<String, Long> values = new TreeMap<>();
+        GAUGES.forEach((name, value) -> values.put(name, value.getAsLong()));
+        return values;
+    }
+
+    private static MethodMetrics method(String side, String name) {
+        return METHODS.computeIfAbsent(side + ":" + name, key -> {
+            MethodMetrics metrics = new MethodMetrics(side, name);
+            register("type=Method,side=" + side + ",name=" + ObjectName.quote(name), metrics);
+            return metrics;
+        });
+    }
+
+    private static void register(String properties, Object mxBean) {
+        if (!JMX || !ENABLED) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":" + properties);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mxBean, objectName);
+            }
+        } catch (JMException e) {
+            log.warn("failed to register metrics MXBean {}", properties, e);
+        }
+    }
+}
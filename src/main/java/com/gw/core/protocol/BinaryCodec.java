@@ -0,0 +1,655 @@
+package com.gw.core.protocol;
+
+import com.gw.core.message.RpcBatchRequestMessage;
+import com.gw.core.message.RpcBatchResponseMessage;
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.message.RpcResponseMessage;
+import com.gw.core.message.RpcStreamMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.CorruptedFrameException;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Description: 紧凑二进制编解码，{@link Serializer.Algorithm#Binary} 的实现
+ * <p>
+ * 整数使用 zigzag + varint 编码；常用类型以注册的编号代替全限定名；
+ * 消息类型使用手写的逐字段编解码器，未注册的类型退化为 Java 序列化
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 13:40
+ */
+public final class BinaryCodec {
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_STRING = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_FLOAT = 7;
+    private static final byte TAG_BYTE = 8;
+    private static final byte TAG_SHORT = 9;
+    private static final byte TAG_CHAR = 10;
+    private static final byte TAG_BYTES = 11;
+    private static final byte TAG_ARRAY = 12;
+    private static final byte TAG_LIST = 13;
+    private static final byte TAG_MAP = 14;
+    private static final byte TAG_CLASS = 15;
+    private static final byte TAG_TYPED = 16;
+    private static final byte TAG_JAVA = 17;
+
+    /**
+     * 类型编号 0 表示 null，1 表示未注册（其后紧跟类全限定名），已注册类型从 2 开始
+     */
+    private static final int NULL_CLASS = 0;
+    private static final int UNREGISTERED_CLASS = 1;
+
+    private static final List<Class<?>> CLASSES = new ArrayList<>();
+    private static final Map<Class<?>, Integer> CLASS_IDS = new HashMap<>();
+
+    private static final List<TypeCodec<?>> CODECS = new ArrayList<>();
+    private static final Map<Class<?>, Integer> CODEC_IDS = new HashMap<>();
+
+    static {
+        // 编号即线上协议，只能追加
+        registerClass(void.class, boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class,
+                Void.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+                Object.class, String.class, Object[].class, String[].class, byte[].class, int[].class, long[].class,
+                List.class, Map.class, Set.class, Collection.class, ArrayList.class, HashMap.class, CompletableFuture.class, Iterator.class);
+
+        registerCodec(RpcRequestMessage.class, new TypeCodec<RpcRequestMessage>() {
+            @Override
+            public void write(ByteBuf out, RpcRequestMessage msg) {
+                writeVarInt(out, msg.getSequenceId());
+                writeVarInt(out, msg.getMethodId());
+                writeString(out, msg.getInterfaceName());
+                writeString(out, msg.getMethodName());
+                writeClass(out, msg.getReturnType());
+                Class[] parameterTypes = msg.getParameterTypes();
+                writeCount(out, parameterTypes);
+                if (parameterTypes != null) {
+                    for (Class<?> parameterType : parameterTypes) {
+                        writeClass(out, parameterType);
+                    }
+                }
+                Object[] parameterValue = msg.getParameterValue();
+                writeCount(out, parameterValue);
+                if (parameterValue != null) {
+                    for (Object value : parameterValue) {
+                        writeObject(out, value);
+                    }
+                }
+            }
+
+            @Override
+            public RpcRequestMessage read(ByteBuf in) {
+                int sequenceId = readVarInt(in);
+                int methodId = readVarInt(in);
+                String interfaceName = readString(in);
+                String methodName = readString(in);
+                Class<?> returnType = readClass(in);
+                int typeCount = readCount(in);
+                Class[] parameterTypes = null;
+                if (typeCount >= 0) {
+                    parameterTypes = new Class[typeCount];
+                    for (int i = 0; i < typeCount; i++) {
+                        parameterTypes[i] = readClass(in);
+                    }
+                }
+                int valueCount = readCount(in);
+                Object[] parameterValue = null;
+                if (valueCount >= 0) {
+                    parameterValue = new Object[valueCount];
+                    for (int i = 0; i < valueCount; i++) {
+                        parameterValue[i] = readObject(in);
+                    }
+                }
+                RpcRequestMessage msg = RpcRequestMessage.newInstance();
+                msg.setSequenceId(sequenceId);
+                msg.setMethodId(methodId);
+                msg.setInterfaceName(interfaceName);
+                msg.setMethodName(methodName);
+                msg.setReturnType(returnType);
+                msg.setParameterTypes(parameterTypes);
+                msg.setParameterValue(parameterValue);
+                return msg;
+            }
+        });
+
+        registerCodec(RpcResponseMessage.class, new TypeCodec<RpcResponseMessage>() {
+            @Override
+            public void write(ByteBuf out, RpcResponseMessage msg) {
+                writeVarInt(out, msg.getSequenceId());
+                writeObject(out, msg.getReturnValue());
+                writeObject(out, msg.getExceptionValue());
+            }
+
+            @Override
+            public RpcResponseMessage read(ByteBuf in) {
+                RpcResponseMessage msg = RpcResponseMessage.newInstance();
+                msg.setSequenceId(readVarInt(in));
+                msg.setReturnValue(readObject(in));
+                msg.setExceptionValue((Exception) readObject(in));
+                return msg;
+            }
+        });
+
+        registerCodec(RpcStreamMessage.class, new TypeCodec<RpcStreamMessage>() {
+            @Override
+            public void write(ByteBuf out, RpcStreamMessage msg) {
+                writeVarInt(out, msg.getSequenceId());
+                out.writeBoolean(msg.isEnd());
+                writeVarInt(out, msg.getCredit());
+                writeVarInt(out, msg.getItems().size());
+                for (Object item : msg.getItems()) {
+                    writeObject(out, item);
+                }
+                writeObject(out, msg.getExceptionValue());
+            }
+
+            @Override
+            public RpcStreamMessage read(ByteBuf in) {
+                RpcStreamMessage msg = new RpcStreamMessage();
+                msg.setSequenceId(readVarInt(in));
+                msg.setEnd(in.readBoolean());
+                msg.setCredit(readVarInt(in));
+                int size = readLength(in);
+                for (int i = 0; i < size; i++) {
+                    msg.getItems().add(readObject(in));
+                }
+                msg.setExceptionValue((Exception) readObject(in));
+                return msg;
+            }
+        });
+
+        registerCodec(RpcBatchRequestMessage.class, new TypeCodec<RpcBatchRequestMessage>() {
+            @Override
+            public void write(ByteBuf out, RpcBatchRequestMessage msg) {
+                writeVarInt(out, msg.getSequenceId());
+                out.writeBoolean(msg.isParallel());
+                writeVarInt(out, msg.getRequests().size());
+                for (RpcRequestMessage request : msg.getRequests()) {
+                    BinaryCodec.write(out, request);
+                }
+            }
+
+            @Override
+            public RpcBatchRequestMessage read(ByteBuf in) {
+                RpcBatchRequestMessage msg = new RpcBatchRequestMessage();
+                msg.setSequenceId(readVarInt(in));
+                msg.setParallel(in.readBoolean());
+                int size = readLength(in);
+                for (int i = 0; i < size; i++) {
+                    msg.getRequests().add(BinaryCodec.read(in, RpcRequestMessage.class));
+                }
+                return msg;
+            }
+        });
+
+        registerCodec(RpcBatchResponseMessage.class, new TypeCodec<RpcBatchResponseMessage>() {
+            @Override
+            public void write(ByteBuf out, RpcBatchResponseMessage msg) {
+                writeVarInt(out, msg.getSequenceId());
+                writeVarInt(out, msg.getResponses().size());
+                for (RpcResponseMessage response : msg.getResponses()) {
+                    BinaryCodec.write(out, response);
+                }
+            }
+
+            @Override
+            public RpcBatchResponseMessage read(ByteBuf in) {
+                RpcBatchResponseMessage msg = new RpcBatchResponseMessage();
+                msg.setSequenceId(readVarInt(in));
+                int size = readLength(in);
+                for (int i = 0; i < size; i++) {
+                    msg.getResponses().add(BinaryCodec.read(in, RpcResponseMessage.class));
+                }
+                return msg;
+            }
+        });
+    }
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * 单个类型的编解码器
+     *
+     * @param <T> 类型
+     */
+    public interface TypeCodec<T> {
+        /**
+         * 写入对象
+         *
+         * @param out 输出缓冲区
+         * @param t   对象
+         */
+        void write(ByteBuf out, T t);
+
+        /**
+         * 读取对象
+         *
+         * @param in 输入缓冲区
+         * @return 对象
+         */
+        T read(ByteBuf in);
+    }
+
+    /**
+     * 注册类型编号，需在编解码之前、且通信双方以相同顺序注册
+     *
+     * @param classes 类型
+     */
+    public static synchronized void registerClass(Class<?>... classes) {
+        for (Class<?> clazz : classes) {
+            if (!CLASS_IDS.containsKey(clazz)) {
+                CLASSES.add(clazz);
+                CLASS_IDS.put(clazz, CLASSES.size() + UNREGISTERED_CLASS);
+            }
+        }
+    }
+
+    /**
+     * 注册类型编解码器，需在编解码之前、且通信双方以相同顺序注册
+     *
+     * @param clazz 类型
+     * @param codec 编解码器
+     * @param <T>   类型
+     */
+    public static synchronized <T> void registerCodec(Class<T> clazz, TypeCodec<T> codec) {
+        if (!CODEC_IDS.containsKey(clazz)) {
+            CODECS.add(codec);
+            CODEC_IDS.put(clazz, CODECS.size() - 1);
+        }
+    }
+
+    /**
+     * 写入任意对象
+     *
+     * @param out   输出缓冲区
+     * @param value 对象
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeObject(ByteBuf out, Object value) {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+            return;
+        }
+        Class<?> clazz = value.getClass();
+        if (clazz == String.class) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (clazz == Integer.class) {
+            out.writeByte(TAG_INT);
+            writeVarInt(out, zigzag((Integer) value));
+        } else if (clazz == Long.class) {
+            out.writeByte(TAG_LONG);
+            writeVarLong(out, zigzag((Long) value));
+        } else if (clazz == Boolean.class) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (clazz == Double.class) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (clazz == Float.class) {
+            out.writeByte(TAG_FLOAT);
+            out.writeFloat((Float) value);
+        } else if (clazz == Byte.class) {
+            out.writeByte(TAG_BYTE);
+            out.writeByte((Byte) value);
+        } else if (clazz == Short.class) {
+            out.writeByte(TAG_SHORT);
+            out.writeShort((Short) value);
+        } else if (clazz == Character.class) {
+            out.writeByte(TAG_CHAR);
+            out.writeChar((Character) value);
+        } else if (clazz == byte[].class) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(TAG_BYTES);
+            writeVarInt(out, bytes.length);
+            out.writeBytes(bytes);
+        } else if (clazz == ArrayList.class) {
+            List<Object> list = (List<Object>) value;
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, list.size());
+            for (Object element : list) {
+                writeObject(out, element);
+            }
+        } else if (clazz == HashMap.class) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            out.writeByte(TAG_MAP);
+            writeVarInt(out, map.size());
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                writeObject(out, entry.getKey());
+                writeObject(out, entry.getValue());
+            }
+        } else if (clazz.isArray() && !clazz.getComponentType().isPrimitive()) {
+            int length = Array.getLength(value);
+            out.writeByte(TAG_ARRAY);
+            writeClass(out, clazz.getComponentType());
+            writeVarInt(out, length);
+            for (int i = 0; i < length; i++) {
+                writeObject(out, Array.get(value, i));
+            }
+        } else if (value instanceof Class) {
+            out.writeByte(TAG_CLASS);
+            writeClass(out, (Class<?>) value);
+        } else {
+            Integer codecId = CODEC_IDS.get(clazz);
+            if (codecId != null) {
+                out.writeByte(TAG_TYPED);
+                writeVarInt(out, codecId);
+                ((TypeCodec<Object>) CODECS.get(codecId)).write(out, value);
+            } else {
+                out.writeByte(TAG_JAVA);
+                writeJava(out, value);
+            }
+        }
+    }
+
+    /**
+     * 读取任意对象
+     *
+     * @param in 输入缓冲区
+     * @return 对象
+     */
+    public static Object readObject(ByteBuf in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return unzigzag(readVarInt(in));
+            case TAG_LONG:
+                return unzigzag(readVarLong(in));
+            case TAG_STRING:
+                return readString(in);
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_FLOAT:
+                return in.readFloat();
+            case TAG_BYTE:
+                return in.readByte();
+            case TAG_SHORT:
+                return in.readShort();
+            case TAG_CHAR:
+                return in.readChar();
+            case TAG_BYTES: {
+                byte[] bytes = new byte[readLength(in)];
+                in.readBytes(bytes);
+                return bytes;
+            }
+            case TAG_LIST: {
+                int size = readLength(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readObject(in));
+                }
+                return list;
+            }
+            case TAG_MAP: {
+                int size = readLength(in);
+                Map<Object, Object> map = new HashMap<>(size * 4 / 3 + 1);
+                for (int i = 0; i < size; i++) {
+                    map.put(readObject(in), readObject(in));
+                }
+                return map;
+            }
+            case TAG_ARRAY: {
+                Class<?> componentType = readClass(in);
+                int length = readLength(in);
+                Object array = Array.newInstance(componentType, length);
+                for (int i = 0; i < length; i++) {
+                    Array.set(array, i, readObject(in));
+                }
+                return array;
+            }
+            case TAG_CLASS:
+                return readClass(in);
+            case TAG_TYPED:
+                return readCodec(in).read(in);
+            case TAG_JAVA:
+                return readJava(in);
+            default:
+                throw new CorruptedFrameException("反序列化失败, 未知的类型标记: " + tag);
+        }
+    }
+
+    /**
+     * 写入指定类型的对象，类型须已注册编解码器
+     *
+     * @param out   输出缓冲区
+     * @param value 对象
+     * @param <T>   类型
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void write(ByteBuf out, T value) {
+        Integer codecId = CODEC_IDS.get(value.getClass());
+        if (codecId == null) {
+            writeObject(out, value);
+        } else {
+            ((TypeCodec<T>) CODECS.get(codecId)).write(out, value);
+        }
+    }
+
+    /**
+     * 读取指定类型的对象
+     *
+     * @param in    输入缓冲区
+     * @param clazz 类型
+     * @param <T>   类型
+     * @return 对象
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(ByteBuf in, Class<T> clazz) {
+        Integer codecId = CODEC_IDS.get(clazz);
+        if (codecId == null) {
+            return (T) readObject(in);
+        }
+        return ((TypeCodec<T>) CODECS.get(codecId)).read(in);
+    }
+
+    /**
+     * 写入类型，已注册的类型只写编号
+     */
+    public static void writeClass(ByteBuf out, Class<?> clazz) {
+        if (clazz == null) {
+            writeVarInt(out, NULL_CLASS);
+            return;
+        }
+        Integer id = CLASS_IDS.get(clazz);
+        if (id != null) {
+            writeVarInt(out, id);
+        } else {
+            writeVarInt(out, UNREGISTERED_CLASS);
+            writeString(out, clazz.getName());
+        }
+    }
+
+    /**
+     * 读取类型
+     */
+    public static Class<?> readClass(ByteBuf in) {
+        int id = readVarInt(in);
+        if (id == NULL_CLASS) {
+            return null;
+        }
+        if (id != UNREGISTERED_CLASS) {
+            int index = id - UNREGISTERED_CLASS - 1;
+            if (index < 0 || index >= CLASSES.size()) {
+                throw new CorruptedFrameException("反序列化失败, 未知的类型编号: " + id);
+            }
+            return CLASSES.get(index);
+        }
+        String name = readString(in);
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("反序列化失败", e);
+        }
+    }
+
+    /**
+     * 写入字符串：varint (字节长度 + 1) + UTF-8 字节，null 记为 0
+     */
+    public static void writeString(ByteBuf out, String value) {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        writeVarInt(out, ByteBufUtil.utf8Bytes(value) + 1);
+        ByteBufUtil.writeUtf8(out, value);
+    }
+
+    /**
+     * 读取字符串
+     */
+    public static String readString(ByteBuf in) {
+        int length = readCount(in);
+        if (length == -1) {
+            return null;
+        }
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    /**
+     * 无符号 varint，负数占 5 个字节，仅用于长度、编号等非负值
+     */
+    public static void writeVarInt(ByteBuf out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(ByteBuf in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new RuntimeException("反序列化失败, varint 过长");
+    }
+
+    public static void writeVarLong(ByteBuf out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    public static long readVarLong(ByteBuf in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new RuntimeException("反序列化失败, varlong 过长");
+    }
+
+    /**
+     * 数组长度 + 1，null 记为 0
+     */
+    private static void writeCount(ByteBuf out, Object[] array) {
+        writeVarInt(out, array == null ? 0 : array.length + 1);
+    }
+
+    /**
+     * 读取编解码器编号并取出对应的编解码器，编号来自对端，须校验范围
+     */
+    private static TypeCodec<?> readCodec(ByteBuf in) {
+        int codecId = readVarInt(in);
+        if (codecId < 0 || codecId >= CODECS.size()) {
+            throw new CorruptedFrameException("反序列化失败, 未知的编解码器编号: " + codecId);
+        }
+        return CODECS.get(codecId);
+    }
+
+    /**
+     * 读取元素个数或字节长度。每个元素至少占一个字节，超过剩余字节数的值必然是损坏或伪造的帧，
+     * 在分配数组或集合之前拒绝，避免几个字节的帧让接收方分配大量内存
+     */
+    private static int readLength(ByteBuf in) {
+        int length = readVarInt(in);
+        if (length < 0 || length > in.readableBytes()) {
+            throw new CorruptedFrameException("反序列化失败, 长度 " + length + " 超出剩余的 " + in.readableBytes() + " 字节");
+        }
+        return length;
+    }
+
+    /**
+     * 读取 {@link #writeCount} 或 {@link #writeString} 写入的长度，null 返回 -1
+     */
+    private static int readCount(ByteBuf in) {
+        int count = readVarInt(in);
+        if (count == 0) {
+            return -1;
+        }
+        count--;
+        if (count < 0 || count > in.readableBytes()) {
+            throw new CorruptedFrameException("反序列化失败, 长度 " + count + " 超出剩余的 " + in.readableBytes() + " 字节");
+        }
+        return count;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeJava(ByteBuf out, Object value) {
+        // 长度先占位，写完回填
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        try (ObjectOutputStream oos = new ObjectOutputStream(new ByteBufOutputStream(out))) {
+            oos.writeObject(value);
+        } catch (IOException e) {
+            throw new RuntimeException("序列化失败", e);
+        }
+        out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+    }
+
+    private static Object readJava(ByteBuf in) {
+        int length = in.readInt();
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteBufInputStream(in.readSlice(length)))) {
+            return ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new RuntimeException("反序列化失败", e);
+        }
+    }
+}
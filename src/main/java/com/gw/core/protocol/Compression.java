@@ -0,0 +1,178 @@
+package com.gw.core.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Description: 正文压缩算法，序号即协议头标志位中的压缩编号
+ * <p>
+ * 压缩后的正文以 4 字节原始长度开头，解压时据此一次分配目标缓冲区并校验长度
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:00
+ */
+public enum Compression {
+
+    /**
+     * 不压缩
+     */
+    None {
+        @Override
+        void doCompress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
+
+        @Override
+        void doDecompress(ByteBuf in, ByteBuf out) {
+            out.writeBytes(in);
+        }
+    },
+
+    /**
+     * JDK Deflater，压缩率高，CPU 开销较大
+     */
+    Deflate {
+        private final ThreadLocal<Deflater> deflaters = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+        private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+        @Override
+        void doCompress(ByteBuf in, ByteBuf out) {
+            Deflater deflater = deflaters.get();
+            deflater.reset();
+            int length = in.readableBytes();
+            if (in.hasArray()) {
+                deflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), length);
+            } else {
+                deflater.setInput(ByteBufUtil.getBytes(in));
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                out.ensureWritable(Math.max(length >>> 4, 256));
+                int n = deflater.deflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes());
+                out.writerIndex(out.writerIndex() + n);
+            }
+            in.skipBytes(length);
+        }
+
+        @Override
+        void doDecompress(ByteBuf in, ByteBuf out) throws DataFormatException {
+            Inflater inflater = inflaters.get();
+            inflater.reset();
+            int length = in.readableBytes();
+            if (in.hasArray()) {
+                inflater.setInput(in.array(), in.arrayOffset() + in.readerIndex(), length);
+            } else {
+                inflater.setInput(ByteBufUtil.getBytes(in));
+            }
+            while (!inflater.finished()) {
+                if (!out.isWritable()) {
+                    throw new CorruptedFrameException("decompressed payload exceeds declared length");
+                }
+                int n = inflater.inflate(out.array(), out.arrayOffset() + out.writerIndex(), out.writableBytes());
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new CorruptedFrameException("truncated deflate payload");
+                }
+                out.writerIndex(out.writerIndex() + n);
+            }
+            in.skipBytes(length);
+        }
+    },
+
+    /**
+     * Netty 自带的 Snappy 实现，速度快，压缩率一般
+     * <p>
+     * 按块压缩，每块前写 4 字节压缩后长度
+     */
+    Snappy {
+        /**
+         * Snappy 的复制偏移最大为 2 字节，单块不超过 32K
+         */
+        private static final int BLOCK_SIZE = 32 * 1024;
+
+        @Override
+        void doCompress(ByteBuf in, ByteBuf out) {
+            io.netty.handler.codec.compression.Snappy snappy = new io.netty.handler.codec.compression.Snappy();
+            while (in.isReadable()) {
+                int lengthIndex = out.writerIndex();
+                out.writeInt(0);
+                // encode 不保证推进 in 的读索引，按块切片后再压缩
+                ByteBuf block = in.readSlice(Math.min(in.readableBytes(), BLOCK_SIZE));
+                snappy.encode(block, out, block.readableBytes());
+                out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+                snappy.reset();
+            }
+        }
+
+        @Override
+        void doDecompress(ByteBuf in, ByteBuf out) {
+            io.netty.handler.codec.compression.Snappy snappy = new io.netty.handler.codec.compression.Snappy();
+            while (in.isReadable()) {
+                snappy.decode(in.readSlice(in.readInt()), out);
+                snappy.reset();
+            }
+        }
+    };
+
+    private static final Compression[] VALUES = values();
+
+    /**
+     * 压缩 in 的可读部分并写入 out
+     *
+     * @param in  原始正文
+     * @param out 压缩结果，须为堆内缓冲区
+     */
+    public void compress(ByteBuf in, ByteBuf out) {
+        out.writeInt(in.readableBytes());
+        doCompress(in, out);
+    }
+
+    /**
+     * 解压 in 的可读部分
+     *
+     * @param in        压缩正文
+     * @param alloc     分配器
+     * @param maxLength 允许的最大原始长度
+     * @return 原始正文，由调用方释放
+     */
+    public ByteBuf decompress(ByteBuf in, ByteBufAllocator alloc, int maxLength) throws DataFormatException {
+        int length = in.readInt();
+        if (length < 0 || length > maxLength) {
+            throw new TooLongFrameException("decompressed payload length " + length + " exceeds " + maxLength);
+        }
+        ByteBuf out = alloc.heapBuffer(length, length);
+        try {
+            doDecompress(in, out);
+            if (out.readableBytes() != length) {
+                throw new CorruptedFrameException("decompressed payload length mismatch, expected " + length + " but was " + out.readableBytes());
+            }
+            return out;
+        } catch (Throwable e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 按协议头中的编号取压缩算法
+     *
+     * @param id 编号
+     * @return 压缩算法
+     */
+    public static Compression valueOf(int id) {
+        if (id < 0 || id >= VALUES.length) {
+            throw new CorruptedFrameException("unknown compression " + id);
+        }
+        return VALUES[id];
+    }
+
+    abstract void doCompress(ByteBuf in, ByteBuf out);
+
+    abstract void doDecompress(ByteBuf in, ByteBuf out) throws DataFormatException;
+}
@@ -2,16 +2,26 @@ package com.gw.core.protocol;
 
 import com.gw.core.config.Config;
 import com.gw.core.message.Message;
+import com.gw.core.metrics.CodecMetrics;
+import com.gw.core.metrics.RpcMetrics;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.AttributeKey;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 
 /**
  * Description: 消息的编解码器
+ * <p>
+ * 协议头 16 字节：魔数(4) 版本(1) 序列化算法(1) 消息类型(1) 序号(4) 标志(1) 正文长度(4)。
+ * 标志低 4 位为压缩算法编号，0x20 表示该帧是分块消息的一部分，0x10 表示后面还有分块；旧版本固定写 0xff，视为无标志
  *
  * @author LinHuiBa-YanAn
  * @date 2023/8/7 20:49
@@ -19,38 +29,222 @@ import java.util.List;
 @Slf4j
 @ChannelHandler.Sharable
 public class MessageCodecSharable extends MessageToMessageCodec<ByteBuf, Message> {
+
+    /**
+     * 魔数 1, 2, 3, 4
+     */
+    private static final int MAGIC_NUMBER = 0x01020304;
+
+    /**
+     * 协议头长度
+     */
+    public static final int HEADER_LENGTH = 16;
+
+    private static final int FLAGS_INDEX = 11;
+    private static final int LEGACY_FLAGS = 0xff;
+    private static final int COMPRESSION_MASK = 0x0f;
+    private static final int FLAG_MORE = 0x10;
+    private static final int FLAG_CHUNKED = 0x20;
+
+    /**
+     * 连接上尚未收齐的分块消息：序号 -> 已收到的正文，只在连接所属的 EventLoop 上访问
+     */
+    private static final AttributeKey<IntObjectMap<CompositeByteBuf>> CHUNKS = AttributeKey.valueOf("rpc.chunks");
+
+    private final int maxChunkLength;
+    private final int maxMessageLength;
+    private final Compression compression;
+    private final int compressionThreshold;
+
+    public MessageCodecSharable() {
+        this(Config.getProtocolMaxFrameLength(), Config.getProtocolMaxMessageLength(),
+                Config.getProtocolCompression(), Config.getProtocolCompressionThreshold());
+    }
+
+    public MessageCodecSharable(int maxFrameLength, int maxMessageLength, Compression compression, int compressionThreshold) {
+        if (maxFrameLength <= HEADER_LENGTH) {
+            throw new IllegalArgumentException("maxFrameLength must be greater than " + HEADER_LENGTH + ": " + maxFrameLength);
+        }
+        this.maxChunkLength = maxFrameLength - HEADER_LENGTH;
+        this.maxMessageLength = maxMessageLength;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+    }
+
     @Override
     public void encode(ChannelHandlerContext ctx, Message msg, List<Object> outList) throws Exception {
-        ByteBuf out = ctx.alloc().buffer();
-        out.writeBytes(new byte[]{1, 2, 3, 4});
+        long start = RpcMetrics.isEnabled() ? System.nanoTime() : 0;
+        Serializer.Algorithm algorithm = Config.getSerializerAlgorithm();
+        ByteBuf out = ctx.alloc().ioBuffer();
+        try {
+            writeHeader(out, algorithm, msg);
+            // 正文直接序列化进缓冲区，长度与标志稍后回填
+            algorithm.serialize(msg, out);
+            int flags = compress(ctx, out);
+            int length = out.readableBytes() - HEADER_LENGTH;
+            if (length <= maxChunkLength) {
+                out.setByte(FLAGS_INDEX, flags);
+                out.setInt(HEADER_LENGTH - 4, length);
+                outList.add(out);
+                recordEncode(algorithm, out.readableBytes(), start);
+                return;
+            }
+            // 超过单帧上限，拆成多帧发送，各帧正文为原缓冲区的切片
+            for (int offset = 0; offset < length; offset += maxChunkLength) {
+                int chunkLength = Math.min(maxChunkLength, length - offset);
+                boolean last = offset + chunkLength == length;
+                ByteBuf header = ctx.alloc().ioBuffer(HEADER_LENGTH);
+                writeHeader(header, algorithm, msg);
+                header.setByte(FLAGS_INDEX, flags | FLAG_CHUNKED | (last ? 0 : FLAG_MORE));
+                header.setInt(HEADER_LENGTH - 4, chunkLength);
+                outList.add(ctx.alloc().compositeBuffer(2)
+                        .addComponents(true, header, out.retainedSlice(HEADER_LENGTH + offset, chunkLength)));
+            }
+            out.release();
+            int frames = (length + maxChunkLength - 1) / maxChunkLength;
+            recordEncode(algorithm, length + frames * HEADER_LENGTH, start);
+        } catch (Throwable e) {
+            out.release();
+            throw e;
+        } finally {
+            // 消息已写成字节，池化的消息对象可以回收
+            msg.recycle();
+        }
+    }
+
+    private static void recordEncode(Serializer.Algorithm algorithm, int bytes, long start) {
+        if (RpcMetrics.isEnabled()) {
+            RpcMetrics.codec(algorithm).encoded(bytes, System.nanoTime() - start);
+        }
+    }
+
+    private static void writeHeader(ByteBuf out, Serializer.Algorithm algorithm, Message msg) {
+        out.writeInt(MAGIC_NUMBER);
         out.writeByte(1);
-        out.writeByte(Config.getSerializerAlgorithm().ordinal());
+        out.writeByte(algorithm.ordinal());
         out.writeByte(msg.getMessageType());
         out.writeInt(msg.getSequenceId());
-        out.writeByte(0xff);
-        byte[] bytes = Config.getSerializerAlgorithm().serialize(msg);
-        out.writeInt(bytes.length);
-        out.writeBytes(bytes);
-        outList.add(out);
+        out.writeByte(0);
+        out.writeInt(0);
+    }
+
+    /**
+     * 正文达到阈值且压缩后更短时，以压缩结果替换正文
+     *
+     * @return 标志位
+     */
+    private int compress(ChannelHandlerContext ctx, ByteBuf out) {
+        int length = out.readableBytes() - HEADER_LENGTH;
+        if (compression == Compression.None || length < compressionThreshold) {
+            return 0;
+        }
+        ByteBuf compressed = ctx.alloc().heapBuffer(length >>> 1);
+        try {
+            compression.compress(out.slice(HEADER_LENGTH, length), compressed);
+            if (compressed.readableBytes() >= length) {
+                return 0;
+            }
+            out.writerIndex(HEADER_LENGTH);
+            out.writeBytes(compressed);
+            return compression.ordinal();
+        } finally {
+            compressed.release();
+        }
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+        long start = RpcMetrics.isEnabled() ? System.nanoTime() : 0;
+        int frameLength = in.readableBytes();
         int magicNum = in.readInt();
         byte version = in.readByte();
         byte serializerAlgorithm = in.readByte();
         byte messageType = in.readByte();
+        Serializer.Algorithm algorithm = Serializer.Algorithm.valueOf(serializerAlgorithm);
+        CodecMetrics metrics = RpcMetrics.isEnabled() ? RpcMetrics.codec(algorithm) : null;
+        if (metrics != null) {
+            metrics.received(frameLength);
+        }
         int sequenceId = in.readInt();
-        in.readByte();
+        int flags = in.readUnsignedByte();
+        if (flags == LEGACY_FLAGS) {
+            flags = 0;
+        }
         int length = in.readInt();
-        byte[] bytes = new byte[length];
-        in.readBytes(bytes, 0, length);
+        // 正文只做切片，反序列化直接读取入站缓冲区
+        ByteBuf payload = in.readSlice(length);
+        ByteBuf release = null;
+        if ((flags & FLAG_CHUNKED) != 0) {
+            // 分块以切片形式挂到组合缓冲区上，不拷贝，也不需要整段连续内存
+            CompositeByteBuf chunks = aggregate(ctx, sequenceId, payload, (flags & FLAG_MORE) != 0);
+            if (chunks == null) {
+                return;
+            }
+            payload = chunks;
+            release = chunks;
+        }
+        try {
+            int compressionId = flags & COMPRESSION_MASK;
+            if (compressionId != 0) {
+                ByteBuf decompressed = Compression.valueOf(compressionId).decompress(payload, ctx.alloc(), maxMessageLength);
+                if (release != null) {
+                    release.release();
+                }
+                payload = decompressed;
+                release = decompressed;
+            }
+            Class<? extends Message> messageClass = Message.getMessageClass(messageType);
+            Message message = algorithm.deserialize(messageClass, payload);
+            out.add(message);
+            if (metrics != null) {
+                // 分块消息只计最后一帧到解码完成的耗时
+                metrics.decoded(System.nanoTime() - start);
+            }
+        } finally {
+            if (release != null) {
+                release.release();
+            }
+        }
+    }
 
-        Serializer.Algorithm algorithm = Serializer.Algorithm.values()[serializerAlgorithm];
-        Class<? extends Message> messageClass = Message.getMessageClass(messageType);
-        Message message = algorithm.deserialize(messageClass, bytes);
-        out.add(message);
+    /**
+     * 追加一个分块
+     *
+     * @return 收齐时返回完整正文，否则返回 null
+     */
+    private CompositeByteBuf aggregate(ChannelHandlerContext ctx, int sequenceId, ByteBuf payload, boolean more) throws TooLongFrameException {
+        IntObjectMap<CompositeByteBuf> pending = ctx.channel().attr(CHUNKS).get();
+        if (pending == null) {
+            pending = new IntObjectHashMap<>();
+            ctx.channel().attr(CHUNKS).set(pending);
+        }
+        CompositeByteBuf chunks = pending.get(sequenceId);
+        if (chunks == null) {
+            chunks = ctx.alloc().compositeBuffer(Integer.MAX_VALUE);
+            pending.put(sequenceId, chunks);
+        }
+        if ((long) chunks.readableBytes() + payload.readableBytes() > maxMessageLength) {
+            pending.remove(sequenceId);
+            chunks.release();
+            throw new TooLongFrameException("message " + sequenceId + " exceeds " + maxMessageLength + " bytes");
+        }
+        chunks.addComponent(true, payload.retain());
+        if (more) {
+            return null;
+        }
+        pending.remove(sequenceId);
+        return chunks;
     }
 
-}
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        IntObjectMap<CompositeByteBuf> pending = ctx.channel().attr(CHUNKS).getAndSet(null);
+        if (pending != null) {
+            for (CompositeByteBuf chunks : pending.values()) {
+                chunks.release();
+            }
+        }
+        super.channelInactive(ctx);
+    }
 
+}
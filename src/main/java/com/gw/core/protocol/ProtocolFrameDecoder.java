@@ -1,9 +1,12 @@
 package com.gw.core.protocol;
 
+import com.gw.core.config.Config;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 
 /**
  * Description: 协议帧解码器
+ * <p>
+ * 单帧上限由 protocol.maxFrameLength 配置，更大的消息由 {@link MessageCodecSharable} 分块发送
  *
  * @author LinHuiBa-YanAn
  * @date 2023/8/7 20:51
@@ -11,7 +14,7 @@ import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 public class ProtocolFrameDecoder extends LengthFieldBasedFrameDecoder {
 
     public ProtocolFrameDecoder() {
-        this(1024, 12, 4, 0, 0);
+        this(Config.getProtocolMaxFrameLength(), 12, 4, 0, 0);
     }
 
     public ProtocolFrameDecoder(int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip) {
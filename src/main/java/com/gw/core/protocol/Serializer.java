@@ -2,10 +2,19 @@ package com.gw.core.protocol;
 
 import com.caucho.hessian.io.HessianInput;
 import com.caucho.hessian.io.HessianOutput;
+import com.caucho.hessian.io.SerializerFactory;
 import com.google.gson.*;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.CorruptedFrameException;
 
 import java.io.*;
 import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -25,6 +34,18 @@ public interface Serializer {
      */
     <T> T deserialize(Class<T> clazz, byte[] bytes);
 
+    /**
+     * 反序列化方法，直接读取 ByteBuf 中的可读字节，省去堆上拷贝
+     *
+     * @param clazz 类型
+     * @param in    输入缓冲区
+     * @param <T>   类型
+     * @return 对象
+     */
+    default <T> T deserialize(Class<T> clazz, ByteBuf in) {
+        return deserialize(clazz, ByteBufUtil.getBytes(in));
+    }
+
     /**
      * 序列化方法
      *
@@ -34,6 +55,17 @@ public interface Serializer {
      */
     <T> byte[] serialize(T object);
 
+    /**
+     * 序列化方法，直接写入 ByteBuf，省去中间 byte[] 及其拷贝
+     *
+     * @param object 对象
+     * @param out    输出缓冲区
+     * @param <T>    类型
+     */
+    default <T> void serialize(T object, ByteBuf out) {
+        out.writeBytes(serialize(object));
+    }
+
     enum Algorithm implements Serializer {
 
         Java {
@@ -47,6 +79,15 @@ public interface Serializer {
                 }
             }
 
+            @Override
+            public <T> T deserialize(Class<T> clazz, ByteBuf in) {
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteBufInputStream(in))) {
+                    return (T) ois.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+                    throw new RuntimeException("反序列化失败", e);
+                }
+            }
+
             @Override
             public <T> byte[] serialize(T object) {
                 try {
@@ -58,60 +99,183 @@ public interface Serializer {
                     throw new RuntimeException("序列化失败", e);
                 }
             }
+
+            @Override
+            public <T> void serialize(T object, ByteBuf out) {
+                try (ObjectOutputStream oos = new ObjectOutputStream(new ByteBufOutputStream(out))) {
+                    oos.writeObject(object);
+                } catch (IOException e) {
+                    throw new RuntimeException("序列化失败", e);
+                }
+            }
         },
 
         Json {
+            /**
+             * Gson 线程安全，且会缓存已解析的 TypeAdapter，全局复用一个实例
+             */
+            private final Gson gson = new GsonBuilder().registerTypeAdapter(Class.class, new ClassCodec()).create();
+
+            /**
+             * 超过该字节数的报文改为流式反序列化
+             */
+            private static final int STREAM_THRESHOLD = 8192;
+
             @Override
             public <T> T deserialize(Class<T> clazz, byte[] bytes) {
-                Gson gson = new GsonBuilder().registerTypeAdapter(Class.class, new ClassCodec()).create();
                 String json = new String(bytes, StandardCharsets.UTF_8);
                 return gson.fromJson(json, clazz);
             }
 
+            @Override
+            public <T> T deserialize(Class<T> clazz, ByteBuf in) {
+                // Reader 自带 8K 解码缓冲，小报文直接解码为 String 更省；大报文流式读取，避免整段 String 拷贝
+                if (in.readableBytes() < STREAM_THRESHOLD) {
+                    return gson.fromJson(in.toString(StandardCharsets.UTF_8), clazz);
+                }
+                Reader reader = new InputStreamReader(new ByteBufInputStream(in), StandardCharsets.UTF_8);
+                return gson.fromJson(reader, clazz);
+            }
+
             @Override
             public <T> byte[] serialize(T object) {
-                Gson gson = new GsonBuilder().registerTypeAdapter(Class.class, new ClassCodec()).create();
                 String json = gson.toJson(object);
                 return json.getBytes(StandardCharsets.UTF_8);
             }
+
+            @Override
+            public <T> void serialize(T object, ByteBuf out) {
+                // 直接按 UTF-8 编码写入缓冲区，不经过 byte[] 与 Writer 的编码缓冲
+                ByteBufUtil.writeUtf8(out, gson.toJson(object));
+            }
         },
 
         Hessian {
+            /**
+             * SerializerFactory 线程安全并缓存各类型的序列化器，全局复用一个实例；
+             * 首次使用时才创建，未选用 Hessian 时不触发其初始化
+             */
+            private volatile SerializerFactory serializerFactory;
+
+            /**
+             * HessianInput/HessianOutput 及输出缓冲区按线程复用，每次使用前通过 init 重新绑定流
+             */
+            private final ThreadLocal<HessianInput> inputs = ThreadLocal.withInitial(() -> {
+                HessianInput hessianInput = new HessianInput();
+                hessianInput.setSerializerFactory(serializerFactory());
+                return hessianInput;
+            });
+            private final ThreadLocal<HessianOutput> outputs = ThreadLocal.withInitial(() -> {
+                HessianOutput hessianOutput = new HessianOutput();
+                hessianOutput.setSerializerFactory(serializerFactory());
+                return hessianOutput;
+            });
+            private final ThreadLocal<ByteBuf> buffers = ThreadLocal.withInitial(Unpooled::buffer);
+
+            private SerializerFactory serializerFactory() {
+                if (serializerFactory == null) {
+                    synchronized (this) {
+                        if (serializerFactory == null) {
+                            serializerFactory = new SerializerFactory();
+                        }
+                    }
+                }
+                return serializerFactory;
+            }
+
             @Override
             public <T> T deserialize(Class<T> clazz, byte[] bytes) {
-                ByteArrayInputStream byteArrayInputStream =  new ByteArrayInputStream(bytes);
-                HessianInput hessianInput = new HessianInput((byteArrayInputStream));
-                // 反序列化成对象
-                Object object = null;
+                // ByteArrayInputStream 的 read 为同步方法，Hessian 逐字节读取时开销明显
+                return deserialize(clazz, Unpooled.wrappedBuffer(bytes));
+            }
+
+            @Override
+            public <T> T deserialize(Class<T> clazz, ByteBuf in) {
+                return deserialize(clazz, new ByteBufInputStream(in));
+            }
+
+            private <T> T deserialize(Class<T> clazz, InputStream in) {
+                HessianInput hessianInput = inputs.get();
+                hessianInput.init(in);
                 try {
-                    object = hessianInput.readObject(clazz);
+                    return (T) hessianInput.readObject(clazz);
                 } catch (IOException e) {
-                    e.printStackTrace();
+                    throw new RuntimeException("反序列化失败", e);
                 } finally {
-                    hessianInput.close();
+                    hessianInput.init(null);
                 }
-                return (T) object;
             }
 
             @Override
             public <T> byte[] serialize(T object) {
-                ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-                byte[] bytes = new byte[0];
+                ByteBuf buffer = buffers.get();
+                buffer.clear();
+                serialize(object, buffer);
+                return ByteBufUtil.getBytes(buffer);
+            }
+
+            @Override
+            public <T> void serialize(T object, ByteBuf out) {
+                serialize(object, new ByteBufOutputStream(out));
+            }
+
+            private <T> void serialize(T object, OutputStream out) {
+                HessianOutput hessianOutput = outputs.get();
+                hessianOutput.init(out);
                 try {
-                    HessianOutput ho = new HessianOutput(byteArrayOutputStream);
-                    ho.writeObject(object);
-                    bytes = byteArrayOutputStream.toByteArray();
+                    hessianOutput.writeObject(object);
+                    hessianOutput.flush();
                 } catch (IOException e) {
-                    e.printStackTrace();
+                    throw new RuntimeException("序列化失败", e);
                 } finally {
-                    try {
-                        byteArrayOutputStream.close();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                    return bytes;
+                    hessianOutput.init(null);
                 }
             }
+        },
+
+        Binary {
+            /**
+             * byte[] 接口使用的线程复用缓冲区
+             */
+            private final ThreadLocal<ByteBuf> buffers = ThreadLocal.withInitial(Unpooled::buffer);
+
+            @Override
+            public <T> T deserialize(Class<T> clazz, byte[] bytes) {
+                return deserialize(clazz, Unpooled.wrappedBuffer(bytes));
+            }
+
+            @Override
+            public <T> T deserialize(Class<T> clazz, ByteBuf in) {
+                return BinaryCodec.read(in, clazz);
+            }
+
+            @Override
+            public <T> byte[] serialize(T object) {
+                ByteBuf buffer = buffers.get();
+                buffer.clear();
+                serialize(object, buffer);
+                return ByteBufUtil.getBytes(buffer);
+            }
+
+            @Override
+            public <T> void serialize(T object, ByteBuf out) {
+                BinaryCodec.write(out, object);
+            }
+        };
+
+        private static final Algorithm[] VALUES = values();
+
+        /**
+         * 按协议头中的编号取序列化算法
+         *
+         * @param id 编号
+         * @return 序列化算法
+         */
+        public static Algorithm valueOf(int id) {
+            if (id < 0 || id >= VALUES.length) {
+                throw new CorruptedFrameException("unknown serializer algorithm " + id);
+            }
+            return VALUES[id];
         }
     }
 
@@ -120,11 +284,23 @@ public interface Serializer {
      */
     class ClassCodec implements JsonSerializer<Class<?>>, JsonDeserializer<Class<?>> {
 
+        /**
+         * 基本类型无法通过 Class.forName 加载
+         */
+        private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+        static {
+            for (Class<?> type : new Class[]{boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class, void.class}) {
+                PRIMITIVES.put(type.getName(), type);
+            }
+        }
+
         @Override
         public Class<?> deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
             try {
                 String str = json.getAsString();
-                return Class.forName(str);
+                Class<?> primitive = PRIMITIVES.get(str);
+                return primitive != null ? primitive : Class.forName(str);
             } catch (ClassNotFoundException e) {
                 throw new JsonParseException(e);
             }
@@ -0,0 +1,114 @@
+package com.gw.core.reference;
+
+import com.gw.core.reference.stub.RpcStub;
+import com.gw.core.reference.stub.RpcStubProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Description: {@link RpcStubProcessor} 生成的客户端存根的父类
+ * <p>
+ * 创建时为接口的每个方法解析一次调用信息（参数类型、超时、结果缓存），存根方法按下标取用，
+ * 调用路径与动态代理相同，但省去了 InvocationHandler 分发与按 {@link Method} 查表。
+ * 异常的处理与动态代理一致：方法未声明的受检异常包装为 {@link UndeclaredThrowableException}
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 23:20
+ */
+public abstract class AbstractRpcStub {
+
+    private final Class<?> serviceClass;
+    private final RpcServiceProxy.MethodInfo[] methods;
+
+    protected AbstractRpcStub(Class<?> serviceClass, Method[] methods) {
+        this.serviceClass = serviceClass;
+        this.methods = new RpcServiceProxy.MethodInfo[methods.length];
+        for (int i = 0; i < methods.length; i++) {
+            this.methods[i] = new RpcServiceProxy.MethodInfo(serviceClass, methods[i]);
+        }
+    }
+
+    /**
+     * 创建接口的存根
+     *
+     * @param serviceClass 服务接口
+     * @param <T>          服务接口
+     * @return 存根，接口未标注 {@link RpcStub} 时为 null
+     */
+    static <T> T newInstance(Class<T> serviceClass) {
+        Class<?> stubClass;
+        try {
+            stubClass = Class.forName(stubName(serviceClass), true, serviceClass.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            return serviceClass.cast(stubClass.getConstructor().newInstance());
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("failed to create rpc stub for " + serviceClass.getName(), e.getCause());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("failed to create rpc stub for " + serviceClass.getName(), e);
+        }
+    }
+
+    /**
+     * 存根类名：同包下的 RpcStub_ 加接口名，嵌套接口以 _ 连接外部类名
+     */
+    static String stubName(Class<?> serviceClass) {
+        String name = serviceClass.getName();
+        int packageEnd = name.lastIndexOf('.') + 1;
+        return name.substring(0, packageEnd) + "RpcStub_" + name.substring(packageEnd).replace('$', '_');
+    }
+
+    /**
+     * 供生成的代码在类初始化时解析接口方法
+     */
+    protected static Method method(Class<?> serviceClass, String name, Class<?>... parameterTypes) {
+        try {
+            return serviceClass.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("rpc stub is out of date with " + serviceClass.getName(), e);
+        }
+    }
+
+    /**
+     * 调用第 index 个方法
+     *
+     * @param index 方法下标，与构造时传入的数组一致
+     * @param args  调用参数，无参方法为 null
+     * @return 调用结果
+     */
+    protected final Object invoke(int index, Object[] args) {
+        RpcServiceProxy.MethodInfo info = methods[index];
+        try {
+            if (info.cache != null) {
+                return info.cache.get(args, () -> RpcServiceProxy.call(serviceClass, info, args));
+            }
+            return RpcServiceProxy.call(serviceClass, info, args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            for (Class<?> exceptionType : info.exceptionTypes) {
+                if (exceptionType.isInstance(e)) {
+                    throw AbstractRpcStub.<RuntimeException>sneakyThrow(e);
+                }
+            }
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * 绕过编译器检查抛出方法已声明的受检异常
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable e) throws E {
+        throw (E) e;
+    }
+
+    @Override
+    public String toString() {
+        return "RpcStub(" + serviceClass.getName() + ")";
+    }
+}
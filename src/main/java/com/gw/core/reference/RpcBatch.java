@@ -0,0 +1,189 @@
+package com.gw.core.reference;
+
+import com.gw.core.config.Config;
+import com.gw.core.message.RpcBatchRequestMessage;
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.reference.handler.PendingCall;
+import com.gw.core.reference.handler.RpcResponseMessageHandler;
+import com.gw.core.reference.loadbalance.ProviderStats;
+import com.gw.core.registry.Provider;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Description: 批量调用，记录多次调用后在一帧内发出
+ * <p>
+ * 通过 {@link #getProxyService(Class)} 得到的代理只记录调用，不会发出请求：返回 {@link CompletableFuture} 的方法返回该次调用的结果，
+ * 其余方法返回 null 或基本类型的默认值，结果从 {@link #execute()} 的列表中按调用顺序取得。
+ * 同一批次只能执行一次，非线程安全
+ * <pre>
+ * RpcBatch batch = RpcServiceProxy.newBatch();
+ * HelloService service = batch.getProxyService(HelloService.class);
+ * CompletableFuture&lt;String&gt; first = service.sayHelloAsync("a");
+ * service.sayHello("b");
+ * List&lt;Object&gt; results = batch.execute().join();
+ * </pre>
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:30
+ */
+public class RpcBatch {
+
+    private final List<RpcRequestMessage> requests = new ArrayList<>();
+    private final List<CompletableFuture<Object>> results = new ArrayList<>();
+    private final List<Long> timeouts = new ArrayList<>();
+    private boolean parallel;
+    private boolean executed;
+
+    /**
+     * 获取只记录调用的代理实例
+     *
+     * @param serviceClass 服务类.class
+     * @param <T>          服务类.class
+     * @return 代理实例
+     */
+    public <T> T getProxyService(Class<T> serviceClass) {
+        Object obj = Proxy.newProxyInstance(serviceClass.getClassLoader(), new Class[]{serviceClass}, (proxy, method, args) -> {
+            if (executed) {
+                throw new IllegalStateException("batch already executed");
+            }
+            RpcRequestMessage msg = new RpcRequestMessage(
+                    0,
+                    serviceClass.getName(),
+                    method.getName(),
+                    method.getReturnType(),
+                    method.getParameterTypes(),
+                    args
+            );
+            msg.setMethod(method);
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            requests.add(msg);
+            results.add(result);
+            timeouts.add(Config.getRpcTimeout(serviceClass.getName(), method.getName()));
+            if (method.getReturnType() == CompletableFuture.class) {
+                return result;
+            }
+            Class<?> returnType = method.getReturnType();
+            return returnType.isPrimitive() && returnType != void.class ? Array.get(Array.newInstance(returnType, 1), 0) : null;
+        });
+        return (T) obj;
+    }
+
+    /**
+     * 服务端是否并行执行批内请求，默认按记录顺序逐个执行
+     *
+     * @param parallel 是否并行
+     * @return this
+     */
+    public RpcBatch parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * @return 已记录的调用数
+     */
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * 将已记录的调用合并为一个请求发出
+     *
+     * @return 按调用顺序排列的结果，任一调用失败时以该异常完成；连接失败或请求被拒绝同样以异常完成，不直接抛出
+     */
+    public CompletableFuture<List<Object>> execute() {
+        if (executed) {
+            throw new IllegalStateException("batch already executed");
+        }
+        executed = true;
+        if (requests.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        RpcBatchRequestMessage batchRequest = new RpcBatchRequestMessage();
+        batchRequest.setParallel(parallel);
+        batchRequest.setRequests(requests);
+        // 整批发往同一提供方，按首个调用选择
+        RpcRequestMessage first = requests.get(0);
+        Provider provider = RpcServiceProxy.RpcClient.select(first.getInterfaceName(), first.getMethod(), first.getParameterValue());
+        ChannelFuture connection = RpcServiceProxy.RpcClient.getChannel(provider);
+        if (connection.isDone()) {
+            send(provider, connection, batchRequest);
+        } else {
+            // 连接尚在建立，完成后再发出，不阻塞调用线程
+            connection.addListener(future -> send(provider, connection, batchRequest));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+            List<Object> values = new ArrayList<>(results.size());
+            for (CompletableFuture<Object> result : results) {
+                values.add(result.join());
+            }
+            return values;
+        });
+    }
+
+    /**
+     * 等待连接并发出；连接失败、等待回应的请求已满等同步异常使所有结果以该异常完成，不从 execute 抛出
+     */
+    private void send(Provider provider, ChannelFuture connection, RpcBatchRequestMessage batchRequest) {
+        try {
+            send(RpcServiceProxy.RpcClient.await(provider, connection), provider, batchRequest);
+        } catch (RuntimeException e) {
+            for (CompletableFuture<Object> result : results) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void send(Channel channel, Provider provider, RpcBatchRequestMessage batchRequest) {
+        List<PendingCall> promises = new ArrayList<>(requests.size());
+        try {
+            register(channel, ProviderStats.of(provider), promises);
+        } catch (RejectedExecutionException e) {
+            // 连接上等待回应的请求已满，撤销已登记的部分
+            for (PendingCall promise : promises) {
+                RpcResponseMessageHandler.fail(promise, e);
+            }
+            throw e;
+        }
+        // 批量请求本身不登记，序号仅用于日志，取首个调用的序号
+        batchRequest.setSequenceId(requests.get(0).getSequenceId());
+        channel.writeAndFlush(batchRequest).addListener(future -> {
+            if (!future.isSuccess()) {
+                for (PendingCall promise : promises) {
+                    RpcResponseMessageHandler.fail(promise, future.cause());
+                }
+            }
+        });
+    }
+
+    /**
+     * 逐个登记批内调用并分配序号，已登记的调用加入 promises
+     */
+    private void register(Channel channel, ProviderStats provider, List<PendingCall> promises) {
+        for (int i = 0; i < requests.size(); i++) {
+            RpcRequestMessage request = requests.get(i);
+            PendingCall promise = new PendingCall(channel, request.getMethod());
+            promise.track(provider);
+            CompletableFuture<Object> result = results.get(i);
+            promise.addListener(future -> {
+                if (future.isSuccess()) {
+                    result.complete(future.getNow());
+                } else {
+                    result.completeExceptionally(future.cause());
+                }
+            });
+            // 先登记再发送，避免响应先于 promise 到达；批内各调用按各自方法的配置超时
+            request.setSequenceId(RpcResponseMessageHandler.register(promise, timeouts.get(i)));
+            promises.add(promise);
+        }
+    }
+}
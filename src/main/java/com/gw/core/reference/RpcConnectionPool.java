@@ -0,0 +1,229 @@
+package com.gw.core.reference;
+
+import com.gw.core.config.Config;
+import com.gw.core.metrics.RpcMetrics;
+import com.gw.core.protocol.MessageCodecSharable;
+import com.gw.core.protocol.ProtocolFrameDecoder;
+import com.gw.core.reference.handler.MethodIdInternHandler;
+import com.gw.core.reference.handler.PendingTable;
+import com.gw.core.reference.handler.RpcBatchResponseMessageHandler;
+import com.gw.core.reference.handler.RpcResponseMessageHandler;
+import com.gw.core.reference.handler.RpcStreamMessageHandler;
+import com.gw.core.transport.RpcTrace;
+import com.gw.core.transport.Transports;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Description: 客户端连接池，每个服务端地址维护 N 条连接
+ * <p>
+ * 连接在首次被选中时才建立，断开的连接在下次被选中时重新建立。
+ * 建立连接是异步的，{@link #acquire()} 返回连接的 {@link ChannelFuture}，不阻塞调用线程，
+ * 因此可以在 IO 线程（如 CompletableFuture 的回调）上发起调用
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 10:20
+ */
+@Slf4j
+public class RpcConnectionPool {
+
+    /**
+     * 服务端地址 -> 连接池
+     */
+    private static final Map<InetSocketAddress, RpcConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * 所有连接池共享的 EventLoopGroup 与 Bootstrap，连接分散到不同的 EventLoop 上
+     */
+    private static final EventLoopGroup GROUP = Transports.newEventLoopGroup(0);
+    private static final Bootstrap BOOTSTRAP = createBootstrap();
+
+    static {
+        RpcMetrics.gauge("client.pending", RpcConnectionPool::pending);
+    }
+
+    private final InetSocketAddress address;
+    private final Strategy strategy;
+    /**
+     * 每个槽位的连接，建立中或已建立；建立失败或断开后置空
+     */
+    private final AtomicReferenceArray<ChannelFuture> channels;
+    private final Object[] locks;
+    private final AtomicInteger index = new AtomicInteger();
+
+    private RpcConnectionPool(InetSocketAddress address, int size, Strategy strategy) {
+        this.address = address;
+        this.strategy = strategy;
+        this.channels = new AtomicReferenceArray<>(size);
+        this.locks = new Object[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * 获取服务端地址对应的连接池
+     *
+     * @param host 服务端ip
+     * @param port 服务端端口
+     * @return 连接池
+     */
+    public static RpcConnectionPool getPool(String host, int port) {
+        InetSocketAddress address = InetSocketAddress.createUnresolved(host, port);
+        return POOLS.computeIfAbsent(address, key -> new RpcConnectionPool(key, Config.getClientPoolSize(), Config.getClientPoolStrategy()));
+    }
+
+    /**
+     * 按负载策略选取一条连接
+     *
+     * @return 连接，可能仍在建立中，建立失败时以失败完成
+     */
+    public ChannelFuture acquire() {
+        return getOrConnect(strategy.select(this));
+    }
+
+    /**
+     * 关闭全部连接并释放客户端线程，之后不可再发起调用
+     */
+    public static void shutdown() {
+        POOLS.clear();
+        GROUP.shutdownGracefully();
+    }
+
+    /**
+     * 所有连接上等待回应的请求与流的总数
+     *
+     * @return 数量
+     */
+    public static long pending() {
+        long pending = 0;
+        for (RpcConnectionPool pool : POOLS.values()) {
+            for (int i = 0; i < pool.channels.length(); i++) {
+                ChannelFuture connection = pool.channels.get(i);
+                if (connection != null) {
+                    pending += PendingTable.of(connection.channel()).size();
+                }
+            }
+        }
+        return pending;
+    }
+
+    private ChannelFuture getOrConnect(int slot) {
+        ChannelFuture connection = channels.get(slot);
+        if (usable(connection)) {
+            return connection;
+        }
+        synchronized (locks[slot]) {
+            connection = channels.get(slot);
+            if (usable(connection)) {
+                return connection;
+            }
+            // 只发起连接，不在锁内等待
+            ChannelFuture connecting = BOOTSTRAP.connect(address.getHostString(), address.getPort());
+            channels.set(slot, connecting);
+            connecting.addListener(future -> {
+                if (!future.isSuccess()) {
+                    log.error("failed to connect to {}", address, future.cause());
+                    channels.compareAndSet(slot, connecting, null);
+                }
+            });
+            // 连接断开后腾出槽位，下次选中时重连
+            connecting.channel().closeFuture().addListener(future -> channels.compareAndSet(slot, connecting, null));
+            return connecting;
+        }
+    }
+
+    /**
+     * 建立中或已建立且未断开
+     */
+    private static boolean usable(ChannelFuture connection) {
+        return connection != null && (!connection.isDone() || connection.channel().isActive());
+    }
+
+    private static Bootstrap createBootstrap() {
+        MessageCodecSharable messageCodec = new MessageCodecSharable();
+        RpcResponseMessageHandler rpcHandler = new RpcResponseMessageHandler();
+        RpcBatchResponseMessageHandler rpcBatchHandler = new RpcBatchResponseMessageHandler();
+        RpcStreamMessageHandler rpcStreamHandler = new RpcStreamMessageHandler();
+        Bootstrap bootstrap = new Bootstrap();
+        bootstrap.channel(Transports.socketChannelClass());
+        bootstrap.group(GROUP);
+        Transports.applyOptions(bootstrap);
+        bootstrap.handler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel ch) {
+                if (Config.isFlushConsolidation()) {
+                    // 调用线程提交的多次 writeAndFlush 合并为一次 flush，减少系统调用
+                    ch.pipeline().addLast(new FlushConsolidationHandler(Config.getFlushConsolidationLimit(), true));
+                }
+                ch.pipeline().addLast(new ProtocolFrameDecoder());
+                ch.pipeline().addLast(messageCodec);
+                ch.pipeline().addLast(rpcHandler);
+                ch.pipeline().addLast(rpcBatchHandler);
+                ch.pipeline().addLast(rpcStreamHandler);
+                if (Config.isMethodIdIntern()) {
+                    ch.pipeline().addLast(new MethodIdInternHandler());
+                }
+                RpcTrace.register(ch);
+            }
+        });
+        return bootstrap;
+    }
+
+    /**
+     * 连接选择策略
+     */
+    public enum Strategy {
+
+        /**
+         * 轮询
+         */
+        RoundRobin {
+            @Override
+            int select(RpcConnectionPool pool) {
+                return (pool.index.getAndIncrement() & Integer.MAX_VALUE) % pool.channels.length();
+            }
+        },
+
+        /**
+         * 选取未完成请求最少的连接，未建立或已断开的槽位视为空闲；
+         * 建立中的连接与已建立的一样按请求数比较，否则预热期间所有调用都会落到第一条建立中的连接上
+         */
+        LeastPending {
+            @Override
+            int select(RpcConnectionPool pool) {
+                int size = pool.channels.length();
+                int start = (pool.index.getAndIncrement() & Integer.MAX_VALUE) % size;
+                int best = start;
+                int bestPending = Integer.MAX_VALUE;
+                for (int i = 0; i < size; i++) {
+                    int slot = (start + i) % size;
+                    ChannelFuture connection = pool.channels.get(slot);
+                    if (connection == null || connection.isDone() && !connection.channel().isActive()) {
+                        return slot;
+                    }
+                    int pending = PendingTable.of(connection.channel()).size();
+                    if (pending < bestPending) {
+                        best = slot;
+                        bestPending = pending;
+                    }
+                }
+                return best;
+            }
+        };
+
+        abstract int select(RpcConnectionPool pool);
+    }
+}
@@ -2,24 +2,27 @@ package com.gw.core.reference;
 
 import com.gw.core.config.Config;
 import com.gw.core.message.RpcRequestMessage;
-import com.gw.core.protocol.MessageCodecSharable;
-import com.gw.core.protocol.ProtocolFrameDecoder;
-import com.gw.core.protocol.SequenceIdGenerator;
+import com.gw.core.reference.cache.ResultCache;
+import com.gw.core.reference.handler.PendingCall;
+import com.gw.core.reference.handler.PendingTable;
 import com.gw.core.reference.handler.RpcResponseMessageHandler;
-import io.netty.bootstrap.Bootstrap;
+import com.gw.core.reference.handler.RpcStreamMessageHandler;
+import com.gw.core.reference.loadbalance.LoadBalancer;
+import com.gw.core.reference.loadbalance.ProviderStats;
+import com.gw.core.registry.Provider;
+import com.gw.core.registry.ProviderRegistry;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelInitializer;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.logging.LogLevel;
-import io.netty.handler.logging.LoggingHandler;
-import io.netty.util.concurrent.DefaultPromise;
+import io.netty.channel.ChannelFuture;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Description: RPC服务代理类
@@ -32,109 +35,265 @@ public class RpcServiceProxy {
 
     /**
      * 获取代理实例
+     * <p>
+     * client.stub.enabled=true 且接口已生成 {@link com.gw.core.reference.stub.RpcStub} 存根时使用存根，否则使用 JDK 动态代理
      *
      * @param serviceClass 服务类.class
      * @param <T>          服务类.class
      * @return 执行结果
      */
     public static <T> T getProxyService(Class<T> serviceClass) {
+        if (Config.isClientStubEnabled()) {
+            T stub = AbstractRpcStub.newInstance(serviceClass);
+            if (stub != null) {
+                return stub;
+            }
+        }
         ClassLoader loader = serviceClass.getClassLoader();
         Class<?>[] interfaces = new Class[]{serviceClass};
         Object obj = Proxy.newProxyInstance(loader, interfaces, new RpcServiceProxyInvocationHandler(serviceClass));
         return (T) obj;
     }
 
+    /**
+     * 获取代理实例，方法返回 {@link CompletableFuture} 时以异步方式调用
+     * <p>
+     * 与 {@link #getProxyService(Class)} 相同，单独提供该方法便于调用方表明意图
+     *
+     * @param serviceClass 服务类.class
+     * @param <T>          服务类.class
+     * @return 代理实例
+     */
+    public static <T> T getAsyncProxyService(Class<T> serviceClass) {
+        return getProxyService(serviceClass);
+    }
+
+    /**
+     * 创建批量调用，记录的多次调用合并为一个请求发出
+     *
+     * @return 批量调用
+     */
+    public static RpcBatch newBatch() {
+        return new RpcBatch();
+    }
+
     /**
      * The class that actually implements the proxy logic
+     * <p>
+     * 方法返回值为 {@link CompletableFuture} 时不会阻塞调用线程，结果由
+     * {@link RpcResponseMessageHandler} 在 IO 线程上完成；返回 {@link Iterator} 时为流式调用，
+     * 立即返回 {@link RpcStream}；其余方法仍同步等待结果
      */
     static class RpcServiceProxyInvocationHandler implements InvocationHandler {
 
         private final Class referenceConfig;
 
+        /**
+         * 方法 -> 调用信息，避免每次调用都查找配置、复制参数类型数组
+         */
+        private final Map<Method, MethodInfo> methods = new ConcurrentHashMap<>();
+
         public RpcServiceProxyInvocationHandler(Class referenceConfig) {
             this.referenceConfig = referenceConfig;
         }
 
+        private MethodInfo infoOf(Method method) {
+            MethodInfo info = methods.get(method);
+            if (info == null) {
+                info = new MethodInfo(referenceConfig, method);
+                methods.put(method, info);
+            }
+            return info;
+        }
+
         @Override
         public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            int sequenceId = SequenceIdGenerator.nextId();
-            RpcRequestMessage msg = new RpcRequestMessage(
-                    sequenceId,
-                    referenceConfig.getName(),
-                    method.getName(),
-                    method.getReturnType(),
-                    method.getParameterTypes(),
-                    args
-            );
-            RpcClient.getChannel().writeAndFlush(msg);
-            DefaultPromise<Object> promise = new DefaultPromise<>(RpcClient.getChannel().eventLoop());
-            RpcResponseMessageHandler.PROMISES.put(sequenceId, promise);
-            promise.await();
-            if (promise.isSuccess()) {
-                return promise.getNow();
-            } else {
-                throw new RuntimeException(promise.cause());
+            MethodInfo info = infoOf(method);
+            if (info.cache != null) {
+                return info.cache.get(args, () -> call(referenceConfig, info, args));
             }
+            return call(referenceConfig, info, args);
         }
     }
 
     /**
-     * 内嵌Netty客户端
+     * 发出一次调用，动态代理与生成的存根共用
+     *
+     * @param serviceClass 服务接口
+     * @param info         方法的调用信息
+     * @param args         调用参数
+     * @return 调用结果；异步方法为 {@link CompletableFuture}，流式方法为 {@link RpcStream}
      */
-    static class RpcClient {
+    static Object call(Class<?> serviceClass, MethodInfo info, Object[] args) throws Exception {
+        Method method = info.method;
+        // 请求取自对象池，编码后由编解码器回收，发送后不得再访问
+        RpcRequestMessage msg = RpcRequestMessage.newInstance();
+        msg.setInterfaceName(serviceClass.getName());
+        msg.setMethodName(info.methodName);
+        msg.setReturnType(info.returnType);
+        msg.setParameterTypes(info.parameterTypes);
+        msg.setParameterValue(args);
+        msg.setMethod(method);
+        Provider provider = RpcClient.select(serviceClass.getName(), method, args);
+        ChannelFuture connection = RpcClient.getChannel(provider);
+        if (!connection.isDone() && info.returnType == CompletableFuture.class) {
+            // 连接尚在建立：异步调用在连接完成后发出，不阻塞调用线程，调用线程可能就是 IO 线程
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            connection.addListener(future -> {
+                try {
+                    ((CompletableFuture<?>) send(RpcClient.await(provider, connection), provider, msg, info)).whenComplete((value, cause) -> {
+                        if (cause == null) {
+                            result.complete(value);
+                        } else {
+                            result.completeExceptionally(cause);
+                        }
+                    });
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            return result;
+        }
+        return send(RpcClient.await(provider, connection), provider, msg, info);
+    }
+
+    /**
+     * 在已建立的连接上发出请求
+     */
+    private static Object send(Channel channel, Provider provider, RpcRequestMessage msg, MethodInfo info) throws Exception {
+        Method method = info.method;
+        if (info.returnType == Iterator.class) {
+            return stream(channel, msg, info.timeoutMillis);
+        }
+        PendingCall promise = new PendingCall(channel, method);
+        promise.track(ProviderStats.of(provider));
+        // 先登记再发送，避免响应先于 promise 到达；序号在连接内分配
+        msg.setSequenceId(RpcResponseMessageHandler.register(promise, info.timeoutMillis));
+        channel.writeAndFlush(msg).addListener(future -> {
+            if (!future.isSuccess()) {
+                RpcResponseMessageHandler.fail(promise, future.cause());
+            }
+        });
+        if (info.returnType == CompletableFuture.class) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            promise.addListener(future -> {
+                if (future.isSuccess()) {
+                    result.complete(future.getNow());
+                } else {
+                    result.completeExceptionally(future.cause());
+                }
+            });
+            return result;
+        }
+        promise.await();
+        if (promise.isSuccess()) {
+            return promise.getNow();
+        } else {
+            throw new RuntimeException(promise.cause());
+        }
+    }
+
+    /**
+     * 流式调用：结果由 {@link RpcStreamMessageHandler} 按块交给返回的迭代器
+     */
+    private static RpcStream<Object> stream(Channel channel, RpcRequestMessage msg, long timeoutMillis) {
+        RpcStream<Object> stream = new RpcStream<>(channel, timeoutMillis);
+        PendingTable table = PendingTable.of(channel);
+        msg.setSequenceId(table.add(stream));
+        channel.writeAndFlush(msg).addListener(future -> {
+            if (!future.isSuccess() && table.remove(stream)) {
+                stream.fail(future.cause());
+            }
+        });
+        // 紧随请求发出初始额度，同一连接上按序到达，服务端收到时流已开始
+        stream.start();
+        return stream;
+    }
+
+    /**
+     * 接口方法的调用信息，动态代理在方法首次调用时解析，存根在创建时解析
+     */
+    static final class MethodInfo {
+
+        final Method method;
+        final String methodName;
+        final Class<?> returnType;
         /**
-         * Channel
+         * 参数类型，多次请求共用同一数组，不得修改
          */
-        private static Channel channel = null;
+        final Class<?>[] parameterTypes;
+        final Class<?>[] exceptionTypes;
+        final long timeoutMillis;
+        /**
+         * 结果缓存，方法未开启缓存时为 null
+         */
+        final ResultCache cache;
+
+        MethodInfo(Class<?> serviceClass, Method method) {
+            this.method = method;
+            this.methodName = method.getName();
+            this.returnType = method.getReturnType();
+            this.parameterTypes = method.getParameterTypes();
+            this.exceptionTypes = method.getExceptionTypes();
+            this.timeoutMillis = Config.getRpcTimeout(serviceClass.getName(), method.getName());
+            this.cache = ResultCache.of(serviceClass, method);
+        }
+    }
+
+    /**
+     * 内嵌Netty客户端：从注册表查找接口的提供方，经负载均衡选出一个后取其连接池中的连接
+     */
+    static class RpcClient {
+
+        private static final ProviderRegistry REGISTRY = ProviderRegistry.create();
+        private static final LoadBalancer LOAD_BALANCER = LoadBalancer.of(Config.getClientLoadBalance());
+
         /**
-         * lock
+         * 为一次调用选择提供方
+         *
+         * @param interfaceName 接口全限定名
+         * @param method        接口方法
+         * @param args          调用参数
+         * @return 提供方
          */
-        private static final Object LOCK = new Object();
+        public static Provider select(String interfaceName, Method method, Object[] args) {
+            List<Provider> providers = REGISTRY.lookup(interfaceName);
+            if (providers.isEmpty()) {
+                throw new IllegalStateException("No provider available for " + interfaceName);
+            }
+            return providers.size() == 1 ? providers.get(0) : LOAD_BALANCER.select(providers, method, args);
+        }
 
         /**
          * get channel
          *
-         * @return Channel
+         * @param provider 提供方
+         * @return 连接，可能仍在建立中
          */
-        public static Channel getChannel() {
-            if (channel != null) {
-                return channel;
-            }
-            synchronized (LOCK) {
-                if (channel != null) {
-                    return channel;
-                }
-                initChannel();
-                return channel;
-            }
+        public static ChannelFuture getChannel(Provider provider) {
+            return RpcConnectionPool.getPool(provider.getHost(), provider.getPort()).acquire();
         }
 
         /**
-         * init channel
+         * 等待连接建立完成，同步调用与流式调用发出前使用
+         *
+         * @param provider   提供方
+         * @param connection 连接
+         * @return 已建立的连接
+         * @throws IllegalStateException 在该连接所属的 IO 线程上等待，连接永远无法完成
          */
-        private static void initChannel() {
-            NioEventLoopGroup group = new NioEventLoopGroup();
-            LoggingHandler loggingHandler = new LoggingHandler(LogLevel.DEBUG);
-            MessageCodecSharable messageCodec = new MessageCodecSharable();
-            RpcResponseMessageHandler rpcHandler = new RpcResponseMessageHandler();
-            Bootstrap bootstrap = new Bootstrap();
-            bootstrap.channel(NioSocketChannel.class);
-            bootstrap.group(group);
-            bootstrap.handler(new ChannelInitializer<SocketChannel>() {
-                @Override
-                protected void initChannel(SocketChannel ch) {
-                    ch.pipeline().addLast(new ProtocolFrameDecoder());
-                    ch.pipeline().addLast(loggingHandler);
-                    ch.pipeline().addLast(messageCodec);
-                    ch.pipeline().addLast(rpcHandler);
+        public static Channel await(Provider provider, ChannelFuture connection) {
+            if (!connection.isDone()) {
+                if (connection.channel().eventLoop().inEventLoop()) {
+                    throw new IllegalStateException("cannot wait for the connection to " + provider
+                            + " on its own IO thread, use a method returning CompletableFuture instead");
                 }
-            });
-            try {
-                channel = bootstrap.connect(Config.getServerIp(), Config.getProjectPort()).sync().channel();
-                channel.closeFuture().addListener(future -> group.shutdownGracefully());
-            } catch (Exception e) {
-                log.error("client error", e);
+                connection.awaitUninterruptibly();
+            }
+            if (!connection.isSuccess()) {
+                throw new RuntimeException("连接服务端失败: " + provider, connection.cause());
             }
+            return connection.channel();
         }
     }
 
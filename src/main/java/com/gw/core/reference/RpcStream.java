@@ -0,0 +1,186 @@
+package com.gw.core.reference;
+
+import com.gw.core.config.Config;
+import com.gw.core.message.RpcStreamMessage;
+import com.gw.core.reference.handler.Pending;
+import com.gw.core.reference.handler.PendingTable;
+import io.netty.channel.Channel;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Description: 流式调用的结果，按块到达后即可迭代
+ * <p>
+ * {@link #hasNext()} 在下一块到达前阻塞。背压按流控制：发出请求后即允许服务端写出 client.stream.buffer 块，
+ * 此后每消费一半再追加同样多的额度，服务端额度用尽即暂停，客户端缓存的块数不超过该窗口。
+ * 连接本身始终可读，一个流消费得慢不会影响同一连接上的其它调用与流。
+ * 调用超时（rpc.timeout）在这里作用于相邻两块之间的等待时间。
+ * 不再迭代剩余结果时应调用 {@link #close()}：移出请求表并通知服务端停止写出，否则服务端的迭代器要等连接断开才释放。
+ * 只应由一个线程迭代，{@link #cancel()} 可在任意线程调用
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:00
+ */
+public class RpcStream<T> implements Iterator<T>, Pending, AutoCloseable {
+
+    private final Channel channel;
+    private int sequenceId;
+    private final long timeoutMillis;
+    private final BlockingQueue<RpcStreamMessage> chunks = new LinkedBlockingQueue<>();
+    private final int window = Math.max(Config.getClientStreamBuffer(), 1);
+    /**
+     * 上次追加额度后已取出的块数，只在迭代线程上访问
+     */
+    private int consumed;
+    private Iterator<Object> current = Collections.emptyIterator();
+    private boolean ended;
+
+    /**
+     * @param channel       接收该流的连接
+     * @param timeoutMillis 等待下一块的超时时间，不大于 0 表示不超时
+     */
+    public RpcStream(Channel channel, long timeoutMillis) {
+        this.channel = channel;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public int getSequenceId() {
+        return sequenceId;
+    }
+
+    @Override
+    public void setSequenceId(int sequenceId) {
+        this.sequenceId = sequenceId;
+    }
+
+    /**
+     * 请求写出后调用，允许服务端写出一个窗口的块
+     */
+    void start() {
+        grant(window);
+    }
+
+    /**
+     * 收到一块，在 IO 线程上调用
+     *
+     * @param chunk 分块
+     */
+    public void onChunk(RpcStreamMessage chunk) {
+        chunks.add(chunk);
+    }
+
+    /**
+     * 放弃剩余结果：移出请求表并通知服务端停止写出，之后 {@link #hasNext()} 返回 false。
+     * 流已结束时为空操作
+     */
+    public void cancel() {
+        if (PendingTable.of(channel).remove(this)) {
+            abandon();
+            RpcStreamMessage end = new RpcStreamMessage();
+            end.setEnd(true);
+            chunks.add(end);
+        }
+    }
+
+    /**
+     * 在迭代线程上调用：取消流，并丢弃当前块中尚未迭代的元素
+     */
+    @Override
+    public void close() {
+        cancel();
+        current = Collections.emptyIterator();
+        ended = true;
+    }
+
+    /**
+     * 已移出请求表后清理：丢弃缓存的块，通知服务端
+     */
+    private void abandon() {
+        chunks.clear();
+        RpcStreamMessage cancel = new RpcStreamMessage();
+        cancel.setSequenceId(sequenceId);
+        cancel.setEnd(true);
+        channel.writeAndFlush(cancel);
+    }
+
+    /**
+     * 允许服务端再写出 credit 块
+     */
+    private void grant(int credit) {
+        RpcStreamMessage demand = new RpcStreamMessage();
+        demand.setSequenceId(sequenceId);
+        demand.setCredit(credit);
+        channel.writeAndFlush(demand);
+    }
+
+    /**
+     * 以异常结束流，如请求发送失败或连接断开
+     *
+     * @param cause 异常
+     */
+    @Override
+    public void fail(Throwable cause) {
+        RpcStreamMessage chunk = new RpcStreamMessage();
+        chunk.setEnd(true);
+        chunk.setExceptionValue(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+        chunks.add(chunk);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (ended) {
+                return false;
+            }
+            RpcStreamMessage chunk = take();
+            if (chunk.getExceptionValue() != null) {
+                ended = true;
+                throw new RuntimeException(chunk.getExceptionValue());
+            }
+            current = chunk.getItems().iterator();
+            ended = chunk.isEnd();
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return (T) current.next();
+    }
+
+    private RpcStreamMessage take() {
+        RpcStreamMessage chunk;
+        try {
+            chunk = timeoutMillis > 0 ? chunks.poll(timeoutMillis, TimeUnit.MILLISECONDS) : chunks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        if (chunk == null) {
+            // 超时未收到下一块，放弃该流；结束块恰好同时到达时仍以其为准
+            if (PendingTable.of(channel).remove(this)) {
+                abandon();
+                ended = true;
+                throw new RuntimeException(new TimeoutException("RPC stream timed out after " + timeoutMillis + "ms waiting for the next chunk"));
+            }
+            return take();
+        }
+        // 消费一半窗口后追加额度，服务端在调用方消费剩余一半期间即可继续写出
+        if (!chunk.isEnd() && ++consumed >= Math.max(window >>> 1, 1)) {
+            grant(consumed);
+            consumed = 0;
+        }
+        return chunk;
+    }
+}
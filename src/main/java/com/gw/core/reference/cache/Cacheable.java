@@ -0,0 +1,33 @@
+package com.gw.core.reference.cache;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 标注在服务接口的方法上，客户端按参数缓存该方法的返回值，只用于幂等、结果可短暂过期的方法
+ * <p>
+ * 可被 client.cache.接口全限定名.方法名.ttl（毫秒，0 表示关闭）与 .maximumSize 配置覆盖；流式方法不缓存
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:40
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+
+    /**
+     * @return 写入后的存活时间
+     */
+    long ttl();
+
+    /**
+     * @return ttl 的单位
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * @return 最多缓存的参数组合数，超出后淘汰最近最少使用的
+     */
+    long maximumSize() default 1000;
+}
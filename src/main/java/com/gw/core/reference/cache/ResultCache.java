@@ -0,0 +1,167 @@
+package com.gw.core.reference.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.gw.core.config.Config;
+import com.gw.core.metrics.RpcMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Description: 单个接口方法的客户端结果缓存，以参数为键
+ * <p>
+ * 基于 Guava Cache：容量上限按最近最少使用淘汰，写入后按 ttl 过期；同一参数并发未命中时只发出一次调用，
+ * 其余调用方等待同一结果。调用失败不缓存；异步方法缓存的是结果 future，失败时移除。
+ * 命中、未命中、淘汰次数与条目数登记为 cache.接口全限定名.方法名.* 指标
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:45
+ */
+@Slf4j
+public class ResultCache {
+
+    /**
+     * Guava Cache 不接受 null 值，以该对象代替
+     */
+    private static final Object NULL = new Object();
+
+    /**
+     * 接口方法 -> 结果缓存，同一接口的多个代理共用；未开启缓存的方法为空
+     */
+    private static final Map<Method, Optional<ResultCache>> CACHES = new ConcurrentHashMap<>();
+
+    private final Cache<Key, Object> cache;
+    private final boolean async;
+
+    private ResultCache(long ttlMillis, long maximumSize, boolean async) {
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.async = async;
+    }
+
+    /**
+     * 获取方法的结果缓存，首次调用时按注解与配置创建
+     *
+     * @param serviceClass 服务接口
+     * @param method       接口方法
+     * @return 缓存，方法未开启缓存时为 null
+     */
+    public static ResultCache of(Class<?> serviceClass, Method method) {
+        Optional<ResultCache> cache = CACHES.get(method);
+        if (cache == null) {
+            cache = CACHES.computeIfAbsent(method, key -> Optional.ofNullable(create(serviceClass, key)));
+        }
+        return cache.orElse(null);
+    }
+
+    private static ResultCache create(Class<?> serviceClass, Method method) {
+        Cacheable cacheable = method.getAnnotation(Cacheable.class);
+        long ttlMillis = Config.getClientCacheTtl(serviceClass.getName(), method.getName());
+        if (ttlMillis < 0) {
+            ttlMillis = cacheable == null ? 0 : cacheable.unit().toMillis(cacheable.ttl());
+        }
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        if (method.getReturnType() == Iterator.class || method.getReturnType() == void.class) {
+            log.warn("result cache ignored for {}.{}: streaming and void methods are not cacheable", serviceClass.getName(), method.getName());
+            return null;
+        }
+        long maximumSize = Config.getClientCacheMaximumSize(serviceClass.getName(), method.getName());
+        if (maximumSize < 0) {
+            maximumSize = cacheable == null ? 1000 : cacheable.maximumSize();
+        }
+        ResultCache resultCache = new ResultCache(ttlMillis, maximumSize, method.getReturnType() == CompletableFuture.class);
+        String name = "cache." + serviceClass.getName() + "." + method.getName();
+        Cache<Key, Object> cache = resultCache.cache;
+        RpcMetrics.gauge(name + ".hits", () -> cache.stats().hitCount());
+        RpcMetrics.gauge(name + ".misses", () -> cache.stats().missCount());
+        RpcMetrics.gauge(name + ".evictions", () -> cache.stats().evictionCount());
+        RpcMetrics.gauge(name + ".size", cache::size);
+        return resultCache;
+    }
+
+    /**
+     * 命中时返回缓存的结果，否则执行调用并缓存结果
+     *
+     * @param args 调用参数
+     * @param call 实际的远程调用
+     * @return 结果；异步方法返回新的 future，调用方对它的操作不影响缓存
+     */
+    public Object get(Object[] args, Callable<Object> call) throws Throwable {
+        Key key = new Key(args);
+        Object value;
+        try {
+            value = cache.get(key, () -> {
+                Object result = call.call();
+                if (async) {
+                    // 失败的调用不缓存；future 可能已经失败，此时移除发生在放入之前，由下面的检查补上
+                    ((CompletableFuture<?>) result).whenComplete((ignored, cause) -> {
+                        if (cause != null) {
+                            cache.asMap().remove(key, result);
+                        }
+                    });
+                }
+                return result == null ? NULL : result;
+            });
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            throw e.getCause();
+        }
+        if (async) {
+            CompletableFuture<?> future = (CompletableFuture<?>) value;
+            if (future.isCompletedExceptionally()) {
+                cache.asMap().remove(key, future);
+            }
+            return future.thenApply(Function.identity());
+        }
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 以参数内容判等的键，数组参数按元素比较
+     */
+    private static final class Key {
+
+        private final Object[] args;
+        private final int hash;
+
+        Key(Object[] args) {
+            // 复制一份，调用方之后修改参数数组不影响已缓存的键
+            this.args = args == null ? new Object[0] : args.clone();
+            this.hash = Arrays.deepHashCode(this.args);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && hash == ((Key) o).hash && Arrays.deepEquals(args, ((Key) o).args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
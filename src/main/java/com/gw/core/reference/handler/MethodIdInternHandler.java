@@ -0,0 +1,100 @@
+package com.gw.core.reference.handler;
+
+import com.gw.core.message.RpcBatchRequestMessage;
+import com.gw.core.message.RpcRequestMessage;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: 方法编号分配，每条连接一个实例
+ * <p>
+ * 某个 (接口, 方法) 在连接上首次出现时分配编号并随完整签名一起发出，之后的请求只携带编号。
+ * 写操作总在连接所属的 EventLoop 上按序执行，服务端必然先收到签名再收到编号，无需额外的握手往返
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 14:30
+ */
+public class MethodIdInternHandler extends ChannelOutboundHandlerAdapter {
+
+    /**
+     * 接口名 -> (方法 -> 编号)
+     */
+    private final Map<String, Map<Method, Integer>> methodIds = new HashMap<>();
+
+    private int nextId = 1;
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof RpcRequestMessage) {
+            Runnable rollback = intern((RpcRequestMessage) msg);
+            if (rollback != null) {
+                promise = rollbackOnFailure(promise, Collections.singletonList(rollback));
+            }
+        } else if (msg instanceof RpcBatchRequestMessage) {
+            List<Runnable> rollbacks = null;
+            for (RpcRequestMessage request : ((RpcBatchRequestMessage) msg).getRequests()) {
+                Runnable rollback = intern(request);
+                if (rollback != null) {
+                    if (rollbacks == null) {
+                        rollbacks = new ArrayList<>();
+                    }
+                    rollbacks.add(rollback);
+                }
+            }
+            if (rollbacks != null) {
+                promise = rollbackOnFailure(promise, rollbacks);
+            }
+        }
+        ctx.write(msg, promise);
+    }
+
+    /**
+     * 为请求分配或替换为方法编号
+     *
+     * @return 新分配编号时返回撤销登记的操作，否则为 null
+     */
+    private Runnable intern(RpcRequestMessage request) {
+        Method method = request.getMethod();
+        if (method == null) {
+            return null;
+        }
+        Map<Method, Integer> ids = methodIds.computeIfAbsent(request.getInterfaceName(), key -> new HashMap<>());
+        Integer id = ids.get(method);
+        if (id != null) {
+            strip(request, id);
+            return null;
+        }
+        ids.put(method, nextId);
+        request.setMethodId(nextId++);
+        return () -> ids.remove(method);
+    }
+
+    /**
+     * 携带签名的首个请求未能发出时撤销登记，下次重新携带签名
+     */
+    private static ChannelPromise rollbackOnFailure(ChannelPromise promise, List<Runnable> rollbacks) {
+        promise = promise.unvoid();
+        promise.addListener(future -> {
+            if (!future.isSuccess()) {
+                rollbacks.forEach(Runnable::run);
+            }
+        });
+        return promise;
+    }
+
+    private static void strip(RpcRequestMessage msg, int id) {
+        msg.setMethodId(id);
+        msg.setInterfaceName(null);
+        msg.setMethodName(null);
+        msg.setReturnType(null);
+        msg.setParameterTypes(null);
+    }
+}
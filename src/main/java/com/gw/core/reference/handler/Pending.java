@@ -0,0 +1,29 @@
+package com.gw.core.reference.handler;
+
+/**
+ * Description: 连接上等待服务端回应的调用或流，由 {@link PendingTable} 按序号索引
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:00
+ */
+public interface Pending {
+
+    /**
+     * @return 请求序号
+     */
+    int getSequenceId();
+
+    /**
+     * 登记时由 {@link PendingTable} 分配
+     *
+     * @param sequenceId 请求序号
+     */
+    void setSequenceId(int sequenceId);
+
+    /**
+     * 以异常结束，调用前已从表中移除
+     *
+     * @param cause 异常
+     */
+    void fail(Throwable cause);
+}
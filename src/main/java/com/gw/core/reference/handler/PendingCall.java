@@ -0,0 +1,131 @@
+package com.gw.core.reference.handler;
+
+import com.gw.core.metrics.MethodMetrics;
+import com.gw.core.metrics.RpcMetrics;
+import com.gw.core.reference.loadbalance.ProviderStats;
+
+import io.netty.channel.Channel;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultPromise;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Description: 已发出、等待响应的调用
+ * <p>
+ * 本身即是接收结果的 promise，同时作为超时任务挂到时间轮上，超时后以 {@link TimeoutException} 失败
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:30
+ */
+public class PendingCall extends DefaultPromise<Object> implements Pending, TimerTask {
+
+    private final Channel channel;
+    private final Method method;
+    private int sequenceId;
+    private long timeoutMillis;
+    private volatile Timeout timeout;
+
+    /**
+     * 调用指标与开始时间，未开启指标时为 null
+     */
+    private final MethodMetrics metrics;
+    private final long startNanos;
+
+    /**
+     * 调用所选提供方的负载统计，供负载均衡参考
+     */
+    private ProviderStats provider;
+    private long providerStartNanos;
+
+    /**
+     * @param channel 发送请求的连接
+     * @param method  调用的接口方法，用于超时异常信息
+     */
+    public PendingCall(Channel channel, Method method) {
+        super(channel.eventLoop());
+        this.channel = channel;
+        this.method = method;
+        this.metrics = RpcMetrics.isEnabled() ? RpcMetrics.client(method) : null;
+        this.startNanos = metrics == null ? 0 : metrics.start();
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    @Override
+    public int getSequenceId() {
+        return sequenceId;
+    }
+
+    @Override
+    public void setSequenceId(int sequenceId) {
+        this.sequenceId = sequenceId;
+    }
+
+    /**
+     * 将本次调用计入提供方的负载统计，须在登记之前调用
+     *
+     * @param provider 提供方统计
+     */
+    public void track(ProviderStats provider) {
+        this.provider = provider;
+        this.providerStartNanos = provider.start();
+    }
+
+    void schedule(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.timeout = RpcResponseMessageHandler.TIMER.newTimeout(this, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void cancelTimeout() {
+        Timeout scheduled = timeout;
+        if (scheduled != null) {
+            scheduled.cancel();
+        }
+    }
+
+    @Override
+    public boolean trySuccess(Object result) {
+        if (super.trySuccess(result)) {
+            if (metrics != null) {
+                metrics.stop(startNanos, false);
+            }
+            if (provider != null) {
+                provider.stop(providerStartNanos, false);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryFailure(Throwable cause) {
+        if (super.tryFailure(cause)) {
+            if (metrics != null) {
+                metrics.stop(startNanos, true);
+            }
+            if (provider != null) {
+                provider.stop(providerStartNanos, true);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void fail(Throwable cause) {
+        cancelTimeout();
+        tryFailure(cause);
+    }
+
+    @Override
+    public void run(Timeout timeout) {
+        RpcResponseMessageHandler.fail(this, new TimeoutException("RPC call timed out after " + timeoutMillis + "ms: "
+                + method.getDeclaringClass().getName() + "." + method.getName()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.gw.core.reference.handler;
+
+import com.gw.core.config.Config;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Description: 连接上等待回应的请求表，每条连接一个实例
+ * <p>
+ * 序号在连接内分配，以 序号 &amp; (容量 - 1) 直接定位槽位，登记与移除都是单次 CAS，不装箱、不分配节点。
+ * 槽位仍被很久以前的请求占用时跳过该序号；全部槽位占满时拒绝新的请求
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:00
+ */
+public final class PendingTable {
+
+    private static final AttributeKey<PendingTable> KEY = AttributeKey.valueOf("rpc.pending");
+
+    private final Channel channel;
+    private final AtomicReferenceArray<Pending> slots;
+    private final int mask;
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final AtomicInteger size = new AtomicInteger();
+
+    private PendingTable(Channel channel, int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.channel = channel;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 获取连接的请求表
+     *
+     * @param channel 连接
+     * @return 请求表
+     */
+    public static PendingTable of(Channel channel) {
+        PendingTable table = channel.attr(KEY).get();
+        if (table == null) {
+            PendingTable created = new PendingTable(channel, Config.getClientPendingCapacity());
+            table = channel.attr(KEY).setIfAbsent(created);
+            if (table == null) {
+                table = created;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 分配序号并登记
+     *
+     * @param pending 调用或流
+     * @return 序号
+     * @throws RejectedExecutionException 连接上等待回应的请求已满
+     */
+    public int add(Pending pending) {
+        for (int i = 0; i <= mask; i++) {
+            int id = nextId.getAndIncrement();
+            int slot = id & mask;
+            if (slots.get(slot) == null) {
+                // 序号先于登记写入，CAS 之后对读取方可见
+                pending.setSequenceId(id);
+                if (slots.compareAndSet(slot, null, pending)) {
+                    size.incrementAndGet();
+                    return id;
+                }
+            }
+        }
+        throw new RejectedExecutionException("too many pending requests on " + channel);
+    }
+
+    /**
+     * 查找未结束的请求
+     *
+     * @param sequenceId 序号
+     * @return 请求，不存在时为 null
+     */
+    public Pending get(int sequenceId) {
+        Pending pending = slots.get(sequenceId & mask);
+        return pending != null && pending.getSequenceId() == sequenceId ? pending : null;
+    }
+
+    /**
+     * 按序号移除
+     *
+     * @param sequenceId 序号
+     * @return 被移除的请求，不存在时为 null
+     */
+    public Pending remove(int sequenceId) {
+        Pending pending = get(sequenceId);
+        return pending != null && remove(pending) ? pending : null;
+    }
+
+    /**
+     * 移除指定请求
+     *
+     * @param pending 请求
+     * @return 是否由本次调用移除
+     */
+    public boolean remove(Pending pending) {
+        if (slots.compareAndSet(pending.getSequenceId() & mask, pending, null)) {
+            size.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 移除全部请求
+     *
+     * @return 被移除的请求
+     */
+    public List<Pending> drain() {
+        List<Pending> drained = new ArrayList<>();
+        for (int i = 0; i <= mask; i++) {
+            Pending pending = slots.getAndSet(i, null);
+            if (pending != null) {
+                size.decrementAndGet();
+                drained.add(pending);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * @return 等待回应的请求数
+     */
+    public int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,24 @@
+package com.gw.core.reference.handler;
+
+import com.gw.core.message.RpcBatchResponseMessage;
+import com.gw.core.message.RpcResponseMessage;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+/**
+ * Description: 批量Rpc响应处理程序，逐个完成批内各请求的 promise
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:20
+ */
+@ChannelHandler.Sharable
+public class RpcBatchResponseMessageHandler extends SimpleChannelInboundHandler<RpcBatchResponseMessage> {
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, RpcBatchResponseMessage msg) throws Exception {
+        for (RpcResponseMessage response : msg.getResponses()) {
+            RpcResponseMessageHandler.complete(ctx.channel(), response);
+        }
+    }
+}
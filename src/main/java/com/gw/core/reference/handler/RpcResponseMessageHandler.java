@@ -1,42 +1,107 @@
 package com.gw.core.reference.handler;
 
 import com.gw.core.message.RpcResponseMessage;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.util.concurrent.Promise;
-import lombok.extern.slf4j.Slf4j;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Description: Rpc响应消息处理程序
+ * <p>
+ * 等待中的调用登记在所在连接的 {@link PendingTable} 中，收到响应、超时、发送失败或连接断开时移出，不会无限期滞留
  *
  * @author LinHuiBa-YanAn
  * @date 2023/8/8 10:29
  */
-@Slf4j
 @ChannelHandler.Sharable
 public class RpcResponseMessageHandler extends SimpleChannelInboundHandler<RpcResponseMessage> {
 
     /**
-     * The promise object used to receive the result
+     * 调用超时检测，精度 10ms
      */
-    public static final Map<Integer, Promise<Object>> PROMISES = new ConcurrentHashMap<>();
+    static final Timer TIMER = new HashedWheelTimer(new DefaultThreadFactory("rpc-timeout", true), 10, TimeUnit.MILLISECONDS);
 
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, RpcResponseMessage msg) throws Exception {
-        log.info("Netty rpc client receives the response:{}", msg);
-        Promise<Object> promise = PROMISES.remove(msg.getSequenceId());
-        if (promise != null) {
-            Object returnValue = msg.getReturnValue();
+        complete(ctx.channel(), msg);
+        msg.recycle();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        // 连接断开后不会再收到回应，立即结束该连接上所有等待中的调用与流
+        ClosedChannelException cause = new ClosedChannelException();
+        for (Pending pending : PendingTable.of(ctx.channel()).drain()) {
+            pending.fail(cause);
+        }
+        super.channelInactive(ctx);
+    }
+
+    /**
+     * 登记等待响应的调用并分配序号，须在发送请求之前调用
+     *
+     * @param call          调用
+     * @param timeoutMillis 超时时间，不大于 0 表示不超时
+     * @return 请求序号
+     * @throws RejectedExecutionException 连接上等待回应的请求已满，调用随之以该异常结束
+     */
+    public static int register(PendingCall call, long timeoutMillis) {
+        int sequenceId;
+        try {
+            sequenceId = PendingTable.of(call.getChannel()).add(call);
+        } catch (RejectedExecutionException e) {
+            call.tryFailure(e);
+            throw e;
+        }
+        if (timeoutMillis > 0) {
+            call.schedule(timeoutMillis);
+            if (call.isDone()) {
+                // 响应先于超时任务登记到达
+                call.cancelTimeout();
+            }
+        }
+        return sequenceId;
+    }
+
+    /**
+     * 以异常结束调用，调用已结束时忽略
+     *
+     * @param call  调用
+     * @param cause 异常
+     */
+    public static void fail(PendingCall call, Throwable cause) {
+        if (PendingTable.of(call.getChannel()).remove(call)) {
+            call.fail(cause);
+        }
+    }
+
+    /**
+     * 以响应完成对应的调用
+     *
+     * @param channel 收到响应的连接
+     * @param msg     响应
+     */
+    static void complete(Channel channel, RpcResponseMessage msg) {
+        Pending pending = PendingTable.of(channel).remove(msg.getSequenceId());
+        if (pending instanceof PendingCall) {
+            PendingCall call = (PendingCall) pending;
+            call.cancelTimeout();
             Exception exceptionValue = msg.getExceptionValue();
             if (exceptionValue == null) {
-                promise.setSuccess(returnValue);
+                call.trySuccess(msg.getReturnValue());
             } else {
-                promise.setFailure(exceptionValue);
+                call.tryFailure(exceptionValue);
             }
+        } else if (pending != null) {
+            pending.fail(new IllegalStateException("unexpected response for sequenceId " + msg.getSequenceId()));
         }
     }
 }
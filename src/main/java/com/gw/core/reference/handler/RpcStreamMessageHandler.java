@@ -0,0 +1,28 @@
+package com.gw.core.reference.handler;
+
+import com.gw.core.message.RpcStreamMessage;
+import com.gw.core.reference.RpcStream;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+/**
+ * Description: 流式响应分块处理程序
+ * <p>
+ * 流与普通调用登记在同一张 {@link PendingTable} 中，收到结束块时移出；连接断开时由 {@link RpcResponseMessageHandler} 统一结束
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:00
+ */
+@ChannelHandler.Sharable
+public class RpcStreamMessageHandler extends SimpleChannelInboundHandler<RpcStreamMessage> {
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, RpcStreamMessage msg) throws Exception {
+        PendingTable table = PendingTable.of(ctx.channel());
+        Pending pending = msg.isEnd() ? table.remove(msg.getSequenceId()) : table.get(msg.getSequenceId());
+        if (pending instanceof RpcStream) {
+            ((RpcStream<?>) pending).onChunk(msg);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.gw.core.reference.loadbalance;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.gw.core.config.Config;
+import com.gw.core.registry.Provider;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Description: 按参数一致性哈希，相同参数的调用落到同一提供方，便于利用提供方的本地缓存
+ * <p>
+ * 哈希的参数由 client.loadbalance.hash.argument 指定（默认第一个）；每个提供方按权重放置虚拟节点，
+ * 增减提供方只影响相邻区间。哈希环按接口缓存，提供方列表实例变化时重建
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:15
+ */
+public class ConsistentHashLoadBalancer implements LoadBalancer {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    /**
+     * 默认权重的提供方放置的虚拟节点数
+     */
+    private static final int VIRTUAL_NODES = 160;
+
+    private final int argument = Config.getClientLoadBalanceHashArgument();
+    private final Map<Class<?>, Ring> rings = new ConcurrentHashMap<>();
+
+    @Override
+    public Provider select(List<Provider> providers, Method method, Object[] args) {
+        Class<?> service = method.getDeclaringClass();
+        Ring ring = rings.get(service);
+        if (ring == null || ring.providers != providers) {
+            ring = new Ring(providers);
+            rings.put(service, ring);
+        }
+        String key = args != null && argument < args.length ? String.valueOf(args[argument]) : method.getName();
+        return ring.locate(hash(key));
+    }
+
+    private static long hash(String key) {
+        return HASH.hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+
+    private static class Ring {
+
+        private final List<Provider> providers;
+        private final long[] hashes;
+        private final Provider[] nodes;
+
+        Ring(List<Provider> providers) {
+            this.providers = providers;
+            int count = 0;
+            for (Provider provider : providers) {
+                count += virtualNodes(provider);
+            }
+            long[][] entries = new long[count][];
+            int index = 0;
+            for (int p = 0; p < providers.size(); p++) {
+                Provider provider = providers.get(p);
+                for (int i = 0; i < virtualNodes(provider); i++) {
+                    entries[index++] = new long[]{hash(provider.getHost() + ":" + provider.getPort() + "#" + i), p};
+                }
+            }
+            Arrays.sort(entries, (x, y) -> Long.compare(x[0], y[0]));
+            hashes = new long[count];
+            nodes = new Provider[count];
+            for (int i = 0; i < count; i++) {
+                hashes[i] = entries[i][0];
+                nodes[i] = providers.get((int) entries[i][1]);
+            }
+        }
+
+        private static int virtualNodes(Provider provider) {
+            return Math.max(1, (int) ((long) VIRTUAL_NODES * provider.getWeight() / Provider.DEFAULT_WEIGHT));
+        }
+
+        /**
+         * 顺时针找到第一个不小于 hash 的虚拟节点，越过末尾时回到开头
+         */
+        Provider locate(long hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return nodes[index == hashes.length ? 0 : index];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gw.core.reference.loadbalance;
+
+import com.gw.core.registry.Provider;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Description: 选择在途调用最少的提供方，并列时按权重随机
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:05
+ */
+public class LeastActiveLoadBalancer implements LoadBalancer {
+
+    @Override
+    public Provider select(List<Provider> providers, Method method, Object[] args) {
+        int size = providers.size();
+        int least = Integer.MAX_VALUE;
+        int leastIndex = 0;
+        int tieWeight = 0;
+        boolean tie = false;
+        for (int i = 0; i < size; i++) {
+            Provider provider = providers.get(i);
+            int active = ProviderStats.of(provider).getActive();
+            if (active < least) {
+                least = active;
+                leastIndex = i;
+                tieWeight = provider.getWeight();
+                tie = false;
+            } else if (active == least) {
+                tieWeight += provider.getWeight();
+                tie = true;
+            }
+        }
+        if (tie && tieWeight > 0) {
+            int offset = ThreadLocalRandom.current().nextInt(tieWeight);
+            for (int i = leastIndex; i < size; i++) {
+                Provider provider = providers.get(i);
+                // 在途数随时变化，第二趟可能与第一趟不一致，找不到时退回第一趟的结果
+                if (ProviderStats.of(provider).getActive() == least) {
+                    offset -= provider.getWeight();
+                    if (offset < 0) {
+                        return provider;
+                    }
+                }
+            }
+        }
+        return providers.get(leastIndex);
+    }
+}
@@ -0,0 +1,52 @@
+package com.gw.core.reference.loadbalance;
+
+import com.gw.core.registry.Provider;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Description: 负载均衡，从接口的多个提供方中为一次调用选出一个
+ * <p>
+ * 由 client.loadbalance 选择：WeightedRandom、LeastActive、P2C、ConsistentHash，或自定义实现的类全限定名（需有无参构造器）
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:00
+ */
+public interface LoadBalancer {
+
+    /**
+     * 选择提供方，在调用线程上执行
+     *
+     * @param providers 提供方，至少两个
+     * @param method    调用的接口方法
+     * @param args      调用参数，可能为 null
+     * @return 提供方
+     */
+    Provider select(List<Provider> providers, Method method, Object[] args);
+
+    /**
+     * 按名称创建负载均衡
+     *
+     * @param name 内置名称或类全限定名
+     * @return 负载均衡
+     */
+    static LoadBalancer of(String name) {
+        switch (name) {
+            case "WeightedRandom":
+                return new WeightedRandomLoadBalancer();
+            case "LeastActive":
+                return new LeastActiveLoadBalancer();
+            case "P2C":
+                return new P2CLoadBalancer();
+            case "ConsistentHash":
+                return new ConsistentHashLoadBalancer();
+            default:
+                try {
+                    return (LoadBalancer) Class.forName(name).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException("unknown load balancer: " + name, e);
+                }
+        }
+    }
+}
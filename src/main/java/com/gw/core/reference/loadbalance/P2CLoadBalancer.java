@@ -0,0 +1,39 @@
+package com.gw.core.reference.loadbalance;
+
+import com.gw.core.registry.Provider;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Description: 二选一（power of two choices）：随机取两个提供方，选择负载较低者
+ * <p>
+ * 负载 = 平均延迟 ×（在途数 + 1）/ 权重，延迟取 {@link ProviderStats} 的 peak EWMA；
+ * 只比较两个节点，开销与提供方数量无关，又不会像全局最小那样让所有客户端同时涌向同一节点
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:10
+ */
+public class P2CLoadBalancer implements LoadBalancer {
+
+    @Override
+    public Provider select(List<Provider> providers, Method method, Object[] args) {
+        int size = providers.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int a = random.nextInt(size);
+        int b = random.nextInt(size - 1);
+        if (b >= a) {
+            b++;
+        }
+        Provider first = providers.get(a);
+        Provider second = providers.get(b);
+        return load(first) <= load(second) ? first : second;
+    }
+
+    private static double load(Provider provider) {
+        ProviderStats stats = ProviderStats.of(provider);
+        // 尚无样本的节点延迟为 0，加 1 使在途数仍然起作用
+        return (stats.getLatency() + 1) * (stats.getActive() + 1) / Math.max(provider.getWeight(), 1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.gw.core.reference.loadbalance;
+
+import com.gw.core.registry.Provider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: 客户端观测到的单个提供方的负载：在途调用数与峰值敏感的指数加权平均延迟（peak EWMA）
+ * <p>
+ * 延迟高于当前均值时立即取新值，低于时按距上次更新的时间衰减（时间常数 10s），慢节点能被迅速避开、缓慢恢复；
+ * 失败的调用至少按 1s 计，避免快速失败的节点吸走流量。并发更新时个别样本可能被覆盖，不影响选择
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:00
+ */
+public class ProviderStats {
+
+    private static final Map<Provider, ProviderStats> STATS = new ConcurrentHashMap<>();
+
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile double latency;
+    private volatile long updated = System.nanoTime();
+
+    /**
+     * 获取提供方的统计
+     *
+     * @param provider 提供方
+     * @return 统计
+     */
+    public static ProviderStats of(Provider provider) {
+        ProviderStats stats = STATS.get(provider);
+        if (stats == null) {
+            stats = STATS.computeIfAbsent(provider, key -> new ProviderStats());
+        }
+        return stats;
+    }
+
+    /**
+     * 调用开始
+     *
+     * @return 开始时间，交给 {@link #stop}
+     */
+    public long start() {
+        active.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    /**
+     * 调用结束，每次 {@link #start} 对应一次
+     *
+     * @param startNanos 开始时间
+     * @param error      是否失败
+     */
+    public void stop(long startNanos, boolean error) {
+        active.decrementAndGet();
+        long now = System.nanoTime();
+        long rtt = now - startNanos;
+        if (error) {
+            rtt = Math.max(rtt, FAILURE_PENALTY_NANOS);
+        }
+        double current = latency;
+        if (rtt > current) {
+            latency = rtt;
+        } else {
+            double weight = Math.exp(-(now - updated) / DECAY_NANOS);
+            latency = current * weight + rtt * (1 - weight);
+        }
+        updated = now;
+    }
+
+    /**
+     * @return 在途调用数
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    /**
+     * @return 平均延迟，纳秒；尚无样本时为 0
+     */
+    public double getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,41 @@
+package com.gw.core.reference.loadbalance;
+
+import com.gw.core.registry.Provider;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Description: 按权重随机
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:05
+ */
+public class WeightedRandomLoadBalancer implements LoadBalancer {
+
+    @Override
+    public Provider select(List<Provider> providers, Method method, Object[] args) {
+        int size = providers.size();
+        int total = 0;
+        boolean sameWeight = true;
+        int firstWeight = providers.get(0).getWeight();
+        for (int i = 0; i < size; i++) {
+            int weight = providers.get(i).getWeight();
+            total += weight;
+            sameWeight &= weight == firstWeight;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (sameWeight || total <= 0) {
+            return providers.get(random.nextInt(size));
+        }
+        int offset = random.nextInt(total);
+        for (int i = 0; i < size; i++) {
+            offset -= providers.get(i).getWeight();
+            if (offset < 0) {
+                return providers.get(i);
+            }
+        }
+        return providers.get(size - 1);
+    }
+}
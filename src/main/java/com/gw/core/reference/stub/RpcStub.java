@@ -0,0 +1,19 @@
+package com.gw.core.reference.stub;
+
+import java.lang.annotation.*;
+
+/**
+ * Description: 标注在服务接口上，以 stub profile 编译时由 {@link RpcStubProcessor} 生成客户端存根类 RpcStub_接口名
+ * <p>
+ * 存根直接实现接口，每个方法按下标调用预先解析好的调用信息，不经过 {@link java.lang.reflect.Proxy} 的
+ * InvocationHandler；client.stub.enabled=true 时 {@link com.gw.core.reference.RpcServiceProxy#getProxyService(Class)}
+ * 找到存根即使用，否则使用动态代理。只为抽象方法生成实现，default 方法在本地执行
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 23:10
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface RpcStub {
+}
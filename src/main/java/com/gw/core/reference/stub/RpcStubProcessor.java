@@ -0,0 +1,214 @@
+package com.gw.core.reference.stub;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Description: 为 {@link RpcStub} 标注的接口生成客户端存根
+ * <p>
+ * 生成的类与接口同包，名为 RpcStub_ 加接口名（嵌套接口以 _ 连接外部类名），继承
+ * {@link com.gw.core.reference.AbstractRpcStub}：类初始化时按名称与参数类型解析一次 {@link java.lang.reflect.Method}，
+ * 每个方法只把参数放入数组后按下标调用。
+ * <p>
+ * 默认不启用：stub profile 在编译其余代码之前单独编译该类并登记到 META-INF/services，因此它只依赖 JDK；
+ * 依赖方可通过 maven-compiler-plugin 的 annotationProcessors 显式启用
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 23:10
+ */
+public class RpcStubProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.gw.core.reference.stub.RpcStub";
+    static final String PREFIX = "RpcStub_";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.INTERFACE) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "@RpcStub is only applicable to interfaces", element);
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "failed to generate rpc stub: " + e, element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        Types types = processingEnv.getTypeUtils();
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String stubName = PREFIX + binarySimpleName(type, packageName);
+        String typeParameters = typeParameters(type.getTypeParameters());
+        String interfaceType = type.getQualifiedName() + typeArguments(type.getTypeParameters());
+        DeclaredType declaredType = (DeclaredType) type.asType();
+
+        StringBuilder metadata = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        Set<String> signatures = new HashSet<>();
+        int index = 0;
+        for (Element member : elements.getAllMembers(type)) {
+            if (member.getKind() != ElementKind.METHOD || member.getEnclosingElement().getKind() != ElementKind.INTERFACE
+                    || !member.getModifiers().contains(Modifier.ABSTRACT)) {
+                continue;
+            }
+            ExecutableElement method = (ExecutableElement) member;
+            // 反射按声明处参数类型的擦除查找方法
+            StringBuilder erasedTypes = new StringBuilder();
+            for (VariableElement parameter : method.getParameters()) {
+                erasedTypes.append(", ").append(types.erasure(parameter.asType())).append(".class");
+            }
+            if (!signatures.add(method.getSimpleName() + erasedTypes.toString())) {
+                continue;
+            }
+            ExecutableType resolved = (ExecutableType) types.asMemberOf(declaredType, method);
+            metadata.append("            method(").append(type.getQualifiedName()).append(".class, \"")
+                    .append(method.getSimpleName()).append('"').append(erasedTypes).append("),\n");
+            appendMethod(methods, method, resolved, index++);
+        }
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? stubName : packageName + "." + stubName, type).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            // 生成的源码只含 ASCII，不受编译器 -encoding 影响
+            writer.write("/**\n * RPC client stub of {@link " + type.getQualifiedName() + "}, generated by " + RpcStubProcessor.class.getName() + "\n */\n");
+            writer.write("@SuppressWarnings(\"unchecked\")\n");
+            writer.write("public final class " + stubName + typeParameters + " extends com.gw.core.reference.AbstractRpcStub implements " + interfaceType + " {\n\n");
+            writer.write("    private static final java.lang.reflect.Method[] METHODS = {\n" + metadata + "    };\n\n");
+            writer.write("    public " + stubName + "() {\n        super(" + type.getQualifiedName() + ".class, METHODS);\n    }\n");
+            writer.write(methods.toString());
+            writer.write("}\n");
+        }
+    }
+
+    private static void appendMethod(StringBuilder out, ExecutableElement method, ExecutableType resolved, int index) {
+        List<? extends VariableElement> parameters = method.getParameters();
+        List<? extends TypeMirror> parameterTypes = resolved.getParameterTypes();
+        out.append("\n    @Override\n    public ");
+        String typeParameters = typeParameters(method.getTypeParameters());
+        if (!typeParameters.isEmpty()) {
+            out.append(typeParameters).append(' ');
+        }
+        TypeMirror returnType = resolved.getReturnType();
+        out.append(returnType).append(' ').append(method.getSimpleName()).append('(');
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            String name = parameters.get(i).getSimpleName().toString();
+            if (i > 0) {
+                out.append(", ");
+                arguments.append(", ");
+            }
+            if (i == parameters.size() - 1 && method.isVarArgs()) {
+                String arrayType = parameterTypes.get(i).toString();
+                out.append(arrayType, 0, arrayType.length() - 2).append("...");
+            } else {
+                out.append(parameterTypes.get(i));
+            }
+            out.append(' ').append(name);
+            arguments.append(name);
+        }
+        out.append(')');
+        List<? extends TypeMirror> thrownTypes = resolved.getThrownTypes();
+        for (int i = 0; i < thrownTypes.size(); i++) {
+            out.append(i == 0 ? " throws " : ", ").append(thrownTypes.get(i));
+        }
+        out.append(" {\n        ");
+        // 与动态代理一致，无参方法的参数数组为 null
+        String call = "invoke(" + index + ", " + (parameters.isEmpty() ? "null" : "new Object[]{" + arguments + "}") + ")";
+        if (returnType.getKind() == TypeKind.VOID) {
+            out.append(call).append(";\n");
+        } else if (returnType.getKind().isPrimitive()) {
+            String boxed = boxedName(returnType.getKind());
+            out.append("return ((").append(boxed).append(") ").append(call).append(").")
+                    .append(returnType).append("Value();\n");
+        } else {
+            out.append("return (").append(returnType).append(") ").append(call).append(";\n");
+        }
+        out.append("    }\n");
+    }
+
+    private static String binarySimpleName(TypeElement type, String packageName) {
+        String qualifiedName = type.getQualifiedName().toString();
+        String simpleName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        return simpleName.replace('.', '_');
+    }
+
+    private static String typeParameters(List<? extends TypeParameterElement> parameters) {
+        if (parameters.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ", "<", ">");
+        for (TypeParameterElement parameter : parameters) {
+            StringJoiner bounds = new StringJoiner(" & ", " extends ", "").setEmptyValue("");
+            for (TypeMirror bound : parameter.getBounds()) {
+                if (!"java.lang.Object".equals(bound.toString())) {
+                    bounds.add(bound.toString());
+                }
+            }
+            joiner.add(parameter.getSimpleName() + bounds.toString());
+        }
+        return joiner.toString();
+    }
+
+    private static String typeArguments(List<? extends TypeParameterElement> parameters) {
+        if (parameters.isEmpty()) {
+            return "";
+        }
+        StringJoiner joiner = new StringJoiner(", ", "<", ">");
+        for (TypeParameterElement parameter : parameters) {
+            joiner.add(parameter.getSimpleName());
+        }
+        return joiner.toString();
+    }
+
+    private static String boxedName(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "Boolean";
+            case BYTE:
+                return "Byte";
+            case SHORT:
+                return "Short";
+            case CHAR:
+                return "Character";
+            case INT:
+                return "Integer";
+            case LONG:
+                return "Long";
+            case FLOAT:
+                return "Float";
+            case DOUBLE:
+                return "Double";
+            default:
+                throw new IllegalArgumentException(kind.toString());
+        }
+    }
+}
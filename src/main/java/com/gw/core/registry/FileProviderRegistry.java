@@ -0,0 +1,102 @@
+package com.gw.core.registry;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 从本地 properties 文件读取提供方，文件变化后自动重新加载
+ * <p>
+ * 每行格式为 接口全限定名=host:port[:weight],host:port[:weight]，键 * 为未单独配置的接口使用的提供方，例如
+ * <pre>
+ * *=127.0.0.1:8080
+ * com.gw.core.service.HelloService=10.0.0.1:8080:200,10.0.0.2:8080
+ * </pre>
+ * 重新加载失败（如文件写到一半）时保留上一次的提供方
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:50
+ */
+@Slf4j
+public class FileProviderRegistry extends InMemoryProviderRegistry {
+
+    private final Path file;
+
+    public FileProviderRegistry(String file) {
+        this.file = Paths.get(file).toAbsolutePath();
+        try {
+            replaceAll(load(this.file));
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("failed to load provider registry file " + this.file, e);
+        }
+        Thread watcher = new DefaultThreadFactory("rpc-registry-watch", true).newThread(this::watch);
+        watcher.start();
+    }
+
+    /**
+     * 立即重新加载文件
+     */
+    public void reload() {
+        try {
+            replaceAll(load(file));
+        } catch (IOException | RuntimeException e) {
+            log.warn("failed to reload provider registry file {}, keeping previous providers", file, e);
+        }
+    }
+
+    static Map<String, List<Provider>> load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        Map<String, List<Provider>> table = new HashMap<>();
+        for (String interfaceName : properties.stringPropertyNames()) {
+            List<Provider> providers = new ArrayList<>();
+            for (String address : properties.getProperty(interfaceName).split(",")) {
+                if (!address.trim().isEmpty()) {
+                    providers.add(Provider.parse(address));
+                }
+            }
+            table.put(interfaceName, providers);
+        }
+        return table;
+    }
+
+    /**
+     * 监视文件所在目录，文件被修改、替换或重新创建时重新加载
+     */
+    private void watch() {
+        try (WatchService watchService = file.getFileSystem().newWatchService()) {
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || (context instanceof Path && file.getFileName().equals(context));
+                }
+                key.reset();
+                if (changed) {
+                    // 编辑器保存常产生多个事件，稍等后只加载一次
+                    TimeUnit.MILLISECONDS.sleep(100);
+                    WatchKey pending;
+                    while ((pending = watchService.poll()) != null) {
+                        pending.pollEvents();
+                        pending.reset();
+                    }
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("stopped watching provider registry file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.gw.core.registry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Description: 内存中的注册表，提供方可在运行时登记与注销
+ * <p>
+ * 每个接口保存一个不可变列表，变更时整体替换（写时复制），查找无锁
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:45
+ */
+@Slf4j
+public class InMemoryProviderRegistry implements ProviderRegistry {
+
+    private final Map<String, List<Provider>> providers = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<List<Provider>>>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Provider> lookup(String interfaceName) {
+        List<Provider> list = providers.get(interfaceName);
+        if (list == null) {
+            list = providers.get(DEFAULT_SERVICE);
+        }
+        return list == null ? Collections.emptyList() : list;
+    }
+
+    @Override
+    public void subscribe(String interfaceName, Consumer<List<Provider>> listener) {
+        listeners.computeIfAbsent(interfaceName, key -> new CopyOnWriteArrayList<>()).add(listener);
+        listener.accept(lookup(interfaceName));
+    }
+
+    /**
+     * 登记提供方，已存在时以新的权重替换
+     *
+     * @param interfaceName 接口全限定名，{@link #DEFAULT_SERVICE} 表示默认
+     * @param provider      提供方
+     */
+    public synchronized void register(String interfaceName, Provider provider) {
+        List<Provider> list = new ArrayList<>(providers.getOrDefault(interfaceName, Collections.emptyList()));
+        list.remove(provider);
+        list.add(provider);
+        update(interfaceName, list);
+    }
+
+    /**
+     * 注销提供方
+     *
+     * @param interfaceName 接口全限定名
+     * @param provider      提供方
+     */
+    public synchronized void unregister(String interfaceName, Provider provider) {
+        List<Provider> list = new ArrayList<>(providers.getOrDefault(interfaceName, Collections.emptyList()));
+        if (list.remove(provider)) {
+            update(interfaceName, list);
+        }
+    }
+
+    /**
+     * 以新的提供方表整体替换，未出现在表中的接口被移除
+     *
+     * @param table 接口全限定名 -> 提供方
+     */
+    public synchronized void replaceAll(Map<String, List<Provider>> table) {
+        Set<String> removed = new HashSet<>(providers.keySet());
+        removed.removeAll(table.keySet());
+        for (String interfaceName : removed) {
+            update(interfaceName, Collections.emptyList());
+        }
+        table.forEach(this::update);
+    }
+
+    private void update(String interfaceName, List<Provider> list) {
+        List<Provider> previous = providers.getOrDefault(interfaceName, Collections.emptyList());
+        if (same(previous, list)) {
+            // 未变化时保留原列表实例，依赖列表实例的缓存（如一致性哈希环）不必重建
+            return;
+        }
+        if (list.isEmpty()) {
+            providers.remove(interfaceName);
+        } else {
+            providers.put(interfaceName, Collections.unmodifiableList(new ArrayList<>(list)));
+        }
+        log.info("providers of {} changed: {}", interfaceName, list);
+        if (DEFAULT_SERVICE.equals(interfaceName)) {
+            // 默认提供方变化影响所有未单独登记的接口
+            listeners.forEach((name, callbacks) -> notify(callbacks, lookup(name)));
+        } else {
+            notify(listeners.get(interfaceName), lookup(interfaceName));
+        }
+    }
+
+    /**
+     * 提供方只按地址判等，这里同时比较权重
+     */
+    private static boolean same(List<Provider> a, List<Provider> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!a.get(i).equals(b.get(i)) || a.get(i).getWeight() != b.get(i).getWeight()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void notify(List<Consumer<List<Provider>>> callbacks, List<Provider> list) {
+        if (callbacks == null) {
+            return;
+        }
+        for (Consumer<List<Provider>> callback : callbacks) {
+            try {
+                callback.accept(list);
+            } catch (RuntimeException e) {
+                log.warn("provider listener failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.gw.core.registry;
+
+import java.util.Objects;
+
+/**
+ * Description: 服务提供方地址与权重，按 host:port 判等
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:40
+ */
+public final class Provider {
+
+    /**
+     * 未指定权重时的默认值
+     */
+    public static final int DEFAULT_WEIGHT = 100;
+
+    private final String host;
+    private final int port;
+    private final int weight;
+
+    public Provider(String host, int port) {
+        this(host, port, DEFAULT_WEIGHT);
+    }
+
+    public Provider(String host, int port, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("weight must not be negative: " + weight);
+        }
+        this.host = host;
+        this.port = port;
+        this.weight = weight;
+    }
+
+    /**
+     * 解析 host:port[:weight]
+     *
+     * @param address 地址
+     * @return 服务提供方
+     */
+    public static Provider parse(String address) {
+        String[] parts = address.trim().split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException("expected host:port[:weight] but got " + address);
+        }
+        int weight = parts.length == 3 ? Integer.parseInt(parts[2]) : DEFAULT_WEIGHT;
+        return new Provider(parts[0], Integer.parseInt(parts[1]), weight);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Provider)) {
+            return false;
+        }
+        Provider provider = (Provider) o;
+        return port == provider.port && host.equals(provider.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return host + ":" + port + ":" + weight;
+    }
+}
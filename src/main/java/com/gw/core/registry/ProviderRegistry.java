@@ -0,0 +1,51 @@
+package com.gw.core.registry;
+
+import com.gw.core.config.Config;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Description: 服务提供方注册表，客户端据此在多个 RpcServer 之间分摊调用
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:40
+ */
+public interface ProviderRegistry {
+
+    /**
+     * 未单独登记的接口使用该键下的提供方
+     */
+    String DEFAULT_SERVICE = "*";
+
+    /**
+     * 查找接口的提供方，调用路径上每次调用都会执行，实现须为常数时间且不分配对象
+     *
+     * @param interfaceName 接口全限定名
+     * @return 不可变列表，提供方变化时替换为新的列表实例；没有提供方时为空列表
+     */
+    List<Provider> lookup(String interfaceName);
+
+    /**
+     * 订阅提供方变化，登记时立即以当前列表回调一次
+     *
+     * @param interfaceName 接口全限定名
+     * @param listener      回调，参数为新的提供方列表
+     */
+    void subscribe(String interfaceName, Consumer<List<Provider>> listener);
+
+    /**
+     * 按配置创建注册表：配置了 registry.file 时读取并监视该文件，否则以 server.ip、server.port 作为唯一提供方
+     *
+     * @return 注册表
+     */
+    static ProviderRegistry create() {
+        String file = Config.getRegistryFile();
+        if (file != null && !file.isEmpty()) {
+            return new FileProviderRegistry(file);
+        }
+        InMemoryProviderRegistry registry = new InMemoryProviderRegistry();
+        registry.register(DEFAULT_SERVICE, new Provider(Config.getServerIp(), Config.getServerPort()));
+        return registry;
+    }
+}
@@ -0,0 +1,161 @@
+package com.gw.core.server;
+
+import com.gw.core.config.Config;
+import com.gw.core.metrics.RpcMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: 服务端自适应并发限制，按请求排队延迟的梯度调整同时执行的请求数上限
+ * <p>
+ * 服务端能直接区分请求在业务线程池中的排队时间与执行时间，执行时间即无负载时的延迟，不必像客户端那样推测基线。
+ * 每个采样窗口（至少 10ms 且 10 个样本）结束时，允许的延迟为执行时间加上 max(执行时间 × 0.5, 1ms) 的排队，
+ * gradient = clamp(允许延迟 / 实际延迟, 0.5, 1)，新上限 = 上限 × gradient + √上限，再与旧上限平滑：
+ * 排队在容许范围内时上限缓慢增长，超出后按比例收缩；在途数不到上限一半时不增长，避免空闲时上限无意义地膨胀；
+ * 执行器拒绝视为过载，上限直接乘以 0.9。超过上限的请求在 IO 线程上立即拒绝，不进入业务线程池排队
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 22:10
+ */
+public class ConcurrencyLimiter {
+
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int WINDOW_MIN_SAMPLES = 10;
+    private static final double QUEUE_TOLERANCE = 0.5;
+    private static final long MIN_QUEUE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_DECREASE = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private volatile double limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 当前窗口的样本，由结束窗口的线程汇总后清零
+     */
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final LongAdder windowRttSum = new LongAdder();
+    private final LongAdder windowServiceSum = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final LongAccumulator windowMaxInFlight = new LongAccumulator(Math::max, 0);
+    private volatile boolean windowDropped;
+
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 按配置创建
+     *
+     * @return 限制器，server.limit.enabled=false 时为 null
+     */
+    public static ConcurrencyLimiter create() {
+        if (!Config.isServerLimitEnabled()) {
+            return null;
+        }
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(Config.getServerLimitInitial(), Config.getServerLimitMin(), Config.getServerLimitMax());
+        RpcMetrics.gauge("server.limit", limiter::getLimit);
+        RpcMetrics.gauge("server.limit.inFlight", limiter::getInFlight);
+        RpcMetrics.gauge("server.limit.rejected", limiter::getRejected);
+        return limiter;
+    }
+
+    /**
+     * 尝试占用一个执行名额
+     *
+     * @return 是否占用成功，成功后须调用 {@link #release}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        windowMaxInFlight.accumulate(current + 1);
+        return true;
+    }
+
+    /**
+     * 归还名额并记录延迟样本
+     *
+     * @param startNanos   进入执行器排队的时间
+     * @param invokedNanos 开始调用服务方法的时间
+     * @param dropped      是否被执行器拒绝
+     */
+    public void release(long startNanos, long invokedNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        long now = System.nanoTime();
+        if (dropped) {
+            windowDropped = true;
+        } else {
+            windowRttSum.add(now - startNanos);
+            windowServiceSum.add(now - invokedNanos);
+            windowSamples.increment();
+        }
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && (windowSamples.sum() >= WINDOW_MIN_SAMPLES || windowDropped)
+                && windowStart.compareAndSet(start, now)) {
+            closeWindow();
+        }
+    }
+
+    private void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttSum.sumThenReset();
+        long serviceSum = windowServiceSum.sumThenReset();
+        long maxInFlight = windowMaxInFlight.getThenReset();
+        boolean dropped = windowDropped;
+        windowDropped = false;
+        double current = limit;
+        double next;
+        if (dropped) {
+            next = current * DROP_DECREASE;
+        } else if (samples == 0) {
+            return;
+        } else {
+            if (maxInFlight < current / 2) {
+                // 负载远低于上限，延迟信息不足以判断是否还能增加
+                return;
+            }
+            double rtt = (double) rttSum / samples;
+            double service = (double) serviceSum / samples;
+            double allowed = service + Math.max(service * QUEUE_TOLERANCE, MIN_QUEUE_NANOS);
+            double gradient = Math.max(0.5, Math.min(1.0, allowed / rtt));
+            double target = current * gradient + Math.sqrt(current);
+            next = current * (1 - SMOOTHING) + target * SMOOTHING;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**
+     * @return 当前上限
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return 正在执行的请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return 累计拒绝的请求数
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
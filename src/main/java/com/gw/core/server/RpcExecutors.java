@@ -0,0 +1,125 @@
+package com.gw.core.server;
+
+import com.gw.core.config.Config;
+import com.gw.core.metrics.RpcMetrics;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Description: 业务线程池，将服务方法的执行从 Netty IO 线程上剥离
+ * <p>
+ * 由 server.executor.type 选择：Direct 在 IO 线程上直接执行（旧行为）；Pool 为有界线程池；
+ * Virtual 为每个请求一个虚拟线程（JDK 21+，不可用时退化为 Pool）。
+ * 可通过 server.executor.service.接口全限定名.threads 为单个服务配置独立线程池，避免慢服务拖累其它服务
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 16:10
+ */
+@Slf4j
+public class RpcExecutors {
+
+    /**
+     * 执行方式
+     */
+    public enum Type {
+        /**
+         * IO 线程上直接执行
+         */
+        Direct,
+        /**
+         * 有界线程池
+         */
+        Pool,
+        /**
+         * 虚拟线程
+         */
+        Virtual
+    }
+
+    /**
+     * 服务接口名 -> 独立线程池
+     */
+    private static final Map<String, Executor> SERVICE_EXECUTORS = new ConcurrentHashMap<>();
+
+    /**
+     * 未单独配置的服务共用的执行器，Direct 时为 null
+     */
+    private static final Executor SHARED = create("rpc-business", Config.getServerExecutorType(),
+            Config.getServerExecutorThreads(), Config.getServerExecutorQueue());
+
+    /**
+     * 获取服务使用的执行器
+     *
+     * @param interfaceName 接口全限定名
+     * @return 执行器，null 表示在 IO 线程上直接执行
+     */
+    public static Executor forService(String interfaceName) {
+        int threads = Config.getServerExecutorThreads(interfaceName);
+        if (threads <= 0) {
+            return SHARED;
+        }
+        return SERVICE_EXECUTORS.computeIfAbsent(interfaceName, key -> create("rpc-" + key.substring(key.lastIndexOf('.') + 1),
+                Type.Pool, threads, Config.getServerExecutorQueue()));
+    }
+
+    private static Executor create(String name, Type type, int threads, int queue) {
+        switch (type) {
+            case Direct:
+                return null;
+            case Virtual:
+                Executor virtual = newVirtualThreadExecutor(name, threads + queue);
+                if (virtual != null) {
+                    return virtual;
+                }
+                log.warn("virtual threads are not available on this JVM, falling back to a thread pool");
+                return newPool(name, threads, queue);
+            case Pool:
+            default:
+                return newPool(name, threads, queue);
+        }
+    }
+
+    private static Executor newPool(String name, int threads, int queue) {
+        // 队列满时直接拒绝，由调用方返回拒绝响应
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queue), new DefaultThreadFactory(name, true), new ThreadPoolExecutor.AbortPolicy());
+        RpcMetrics.gauge("executor." + name + ".queue", () -> pool.getQueue().size());
+        RpcMetrics.gauge("executor." + name + ".active", pool::getActiveCount);
+        return pool;
+    }
+
+    /**
+     * 编译目标为 Java 8，通过反射创建虚拟线程执行器，并以信号量限制同时执行的请求数
+     */
+    private static Executor newVirtualThreadExecutor(String name, int limit) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService delegate = (ExecutorService) factory.invoke(null);
+            Semaphore permits = new Semaphore(limit);
+            RpcMetrics.gauge("executor." + name + ".active", () -> limit - permits.availablePermits());
+            return command -> {
+                if (!permits.tryAcquire()) {
+                    throw new RejectedExecutionException("too many requests in flight");
+                }
+                try {
+                    delegate.execute(() -> {
+                        try {
+                            command.run();
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
+                }
+            };
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -3,15 +3,17 @@ package com.gw.core.server;
 import com.gw.core.config.Config;
 import com.gw.core.protocol.MessageCodecSharable;
 import com.gw.core.protocol.ProtocolFrameDecoder;
+import com.gw.core.server.handler.RpcBatchRequestMessageHandler;
 import com.gw.core.server.handler.RpcRequestMessageHandler;
+import com.gw.core.server.handler.RpcStreamControlHandler;
+import com.gw.core.transport.RpcTrace;
+import com.gw.core.transport.Transports;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.EventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.logging.LogLevel;
-import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -22,32 +24,81 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 public class RpcServer {
+
+    private final int port;
+    private EventLoopGroup boss;
+    private EventLoopGroup worker;
+    private Channel channel;
+
+    public RpcServer(int port) {
+        this.port = port;
+    }
+
     public static void main(String[] args) {
-        log.info("netty rpc server starting......");
-        NioEventLoopGroup boss = new NioEventLoopGroup();
-        NioEventLoopGroup worker = new NioEventLoopGroup();
-        LoggingHandler LOGGING_HANDLER = new LoggingHandler(LogLevel.DEBUG);
-        MessageCodecSharable MESSAGE_CODEC = new MessageCodecSharable();
-        RpcRequestMessageHandler RPC_HANDLER = new RpcRequestMessageHandler();
+        RpcServer server = new RpcServer(Config.getProjectPort());
         try {
-            ServerBootstrap serverBootstrap = new ServerBootstrap();
-            serverBootstrap.channel(NioServerSocketChannel.class);
-            serverBootstrap.group(boss, worker);
-            serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
-                @Override
-                protected void initChannel(SocketChannel ch) throws Exception {
-                    ch.pipeline().addLast(new ProtocolFrameDecoder());
-                    ch.pipeline().addLast(LOGGING_HANDLER);
-                    ch.pipeline().addLast(MESSAGE_CODEC);
-                    ch.pipeline().addLast(RPC_HANDLER);
-                }
-            });
-            Channel channel = serverBootstrap.bind(Config.getProjectPort()).sync().channel();
-            channel.closeFuture().sync();
+            server.start().closeFuture().sync();
         } catch (InterruptedException e) {
             log.error("server error", e);
         } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * 启动服务端并绑定端口
+     *
+     * @return 监听 Channel
+     */
+    public Channel start() throws InterruptedException {
+        log.info("netty rpc server starting......");
+        // 服务在启动线程上创建，IO 线程不执行服务的构造
+        ServiceMethodRegistry.warmUp();
+        boss = Transports.newEventLoopGroup(1);
+        worker = Transports.newEventLoopGroup(0);
+        MessageCodecSharable MESSAGE_CODEC = new MessageCodecSharable();
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.create();
+        RpcRequestMessageHandler RPC_HANDLER = new RpcRequestMessageHandler(limiter);
+        RpcBatchRequestMessageHandler RPC_BATCH_HANDLER = new RpcBatchRequestMessageHandler(limiter);
+        RpcStreamControlHandler RPC_STREAM_CONTROL_HANDLER = new RpcStreamControlHandler();
+        ServerBootstrap serverBootstrap = new ServerBootstrap();
+        serverBootstrap.channel(Transports.serverChannelClass());
+        serverBootstrap.group(boss, worker);
+        Transports.applyOptions(serverBootstrap);
+        serverBootstrap.childHandler(new ChannelInitializer<SocketChannel>() {
+            @Override
+            protected void initChannel(SocketChannel ch) throws Exception {
+                if (Config.isFlushConsolidation()) {
+                    ch.pipeline().addLast(new FlushConsolidationHandler(Config.getFlushConsolidationLimit(), true));
+                }
+                ch.pipeline().addLast(new ProtocolFrameDecoder());
+                ch.pipeline().addLast(MESSAGE_CODEC);
+                ch.pipeline().addLast(RPC_HANDLER);
+                ch.pipeline().addLast(RPC_BATCH_HANDLER);
+                ch.pipeline().addLast(RPC_STREAM_CONTROL_HANDLER);
+                RpcTrace.register(ch);
+            }
+        });
+        try {
+            channel = serverBootstrap.bind(port).sync().channel();
+        } catch (InterruptedException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        return channel;
+    }
+
+    /**
+     * 关闭服务端
+     */
+    public void close() {
+        if (channel != null) {
+            channel.close();
+        }
+        if (boss != null) {
             boss.shutdownGracefully();
+        }
+        if (worker != null) {
             worker.shutdownGracefully();
         }
     }
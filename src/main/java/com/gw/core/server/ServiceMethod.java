@@ -0,0 +1,141 @@
+package com.gw.core.server;
+
+import com.gw.core.metrics.MethodMetrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+
+/**
+ * Description: 解析完成的服务方法，可直接调用
+ * <p>
+ * 启动时将实现方法预编译为绑定了服务实例、参数展开后的 MethodHandle，调用时不再经过反射查找与访问检查
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 14:45
+ */
+public class ServiceMethod {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    private final MethodHandle invoker;
+    private final Executor executor;
+    private final MethodMetrics metrics;
+
+    /**
+     * 是否有数值类型参数，Json 等不保留数值类型的序列化方式下需要按参数类型转换
+     */
+    private final boolean numericParameters;
+
+    public ServiceMethod(Object service, Method method, Executor executor, MethodMetrics metrics) throws IllegalAccessException {
+        this.method = method;
+        this.executor = executor;
+        this.metrics = metrics;
+        this.parameterTypes = method.getParameterTypes();
+        this.numericParameters = Arrays.stream(parameterTypes).anyMatch(ServiceMethod::isNumeric);
+        this.invoker = MethodHandles.publicLookup().unreflect(method)
+                .bindTo(service)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(INVOKER_TYPE);
+    }
+
+    /**
+     * 实现方法
+     *
+     * @return Method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 执行该方法的业务执行器
+     *
+     * @return 执行器，null 表示在 IO 线程上直接执行
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 该方法的服务端指标
+     *
+     * @return 方法指标
+     */
+    public MethodMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 是否为流式方法：返回 {@link Iterator} 的方法按块逐步返回结果
+     *
+     * @return 是否流式
+     */
+    public boolean isStreaming() {
+        return method.getReturnType() == Iterator.class;
+    }
+
+    /**
+     * 参数类型是否一致
+     *
+     * @param types 请求携带的参数类型，null 视为无参
+     * @return 是否一致
+     */
+    public boolean matches(Class[] types) {
+        return types == null ? parameterTypes.length == 0 : Arrays.equals(parameterTypes, types);
+    }
+
+    /**
+     * 调用服务方法，业务异常包装为 {@link InvocationTargetException}，与反射调用保持一致
+     *
+     * @param args 参数
+     * @return 返回值
+     */
+    public Object invoke(Object[] args) throws InvocationTargetException {
+        if (numericParameters && args != null) {
+            coerceNumbers(args);
+        }
+        try {
+            return invoker.invokeExact(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    private void coerceNumbers(Object[] args) {
+        for (int i = 0; i < args.length && i < parameterTypes.length; i++) {
+            if (args[i] instanceof Number && isNumeric(parameterTypes[i])) {
+                args[i] = convert((Number) args[i], parameterTypes[i]);
+            }
+        }
+    }
+
+    private static boolean isNumeric(Class<?> type) {
+        return type == int.class || type == Integer.class || type == long.class || type == Long.class
+                || type == double.class || type == Double.class || type == float.class || type == Float.class
+                || type == short.class || type == Short.class || type == byte.class || type == Byte.class;
+    }
+
+    private static Object convert(Number value, Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return value instanceof Integer ? value : value.intValue();
+        } else if (type == long.class || type == Long.class) {
+            return value instanceof Long ? value : value.longValue();
+        } else if (type == double.class || type == Double.class) {
+            return value instanceof Double ? value : value.doubleValue();
+        } else if (type == float.class || type == Float.class) {
+            return value instanceof Float ? value : value.floatValue();
+        } else if (type == short.class || type == Short.class) {
+            return value instanceof Short ? value : value.shortValue();
+        } else {
+            return value instanceof Byte ? value : value.byteValue();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.gw.core.server;
+
+import com.gw.core.config.Config;
+import com.gw.core.metrics.RpcMetrics;
+import com.gw.core.service.ServicesFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Description: 服务方法分发表
+ * <p>
+ * 服务端启动时由 {@link #warmUp()} 在启动线程上为已配置的接口通过 {@link ServicesFactory} 创建服务，
+ * 并为每个接口方法预先解析出 {@link ServiceMethod}，IO 线程上只查表，不执行服务的构造等用户代码；
+ * 未预热的接口在首次请求时构建，只锁住该接口。
+ * 请求到达时按 接口名 -> 方法名 两次哈希查找，再比对参数类型即可得到调用器
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 15:20
+ */
+@Slf4j
+public class ServiceMethodRegistry {
+
+    /**
+     * 接口名 -> (方法名 -> 同名重载)，只增不改
+     */
+    private static final Map<String, Map<String, ServiceMethod[]>> METHODS = new ConcurrentHashMap<>();
+
+    /**
+     * 为配置了实现类的接口创建服务并构建分发表，失败的接口记录日志后留到首次请求时再报告给调用方
+     */
+    public static void warmUp() {
+        for (String interfaceName : Config.getServiceInterfaces()) {
+            try {
+                resolve(interfaceName);
+            } catch (ClassNotFoundException e) {
+                log.error("failed to register service {}", interfaceName, e);
+            }
+        }
+    }
+
+    /**
+     * 获取接口的分发表，同一接口只构建一次；构建时只锁住该接口所在的桶，不影响已构建接口的查找
+     */
+    private static Map<String, ServiceMethod[]> resolve(String interfaceName) throws ClassNotFoundException {
+        try {
+            return METHODS.computeIfAbsent(interfaceName, key -> {
+                try {
+                    return build(key);
+                } catch (ClassNotFoundException e) {
+                    throw new UnresolvedServiceException(e);
+                }
+            });
+        } catch (UnresolvedServiceException e) {
+            throw (ClassNotFoundException) e.getCause();
+        }
+    }
+
+    private static Map<String, ServiceMethod[]> build(String interfaceName) throws ClassNotFoundException {
+        // 先确认已配置实现，避免按请求中任意的接口名加载类
+        if (Config.getServiceImplementation(interfaceName) == null) {
+            throw new ClassNotFoundException("No service implementation registered for " + interfaceName);
+        }
+        Class<?> interfaceClass = Class.forName(interfaceName);
+        Object service;
+        try {
+            service = ServicesFactory.getService(interfaceClass);
+        } catch (IllegalStateException e) {
+            throw new ClassNotFoundException("Service implementation unavailable for " + interfaceName, e);
+        }
+        Map<String, ServiceMethod[]> methods = new HashMap<>();
+        Executor executor = RpcExecutors.forService(interfaceName);
+        for (Method method : interfaceClass.getMethods()) {
+            try {
+                Method implMethod = service.getClass().getMethod(method.getName(), method.getParameterTypes());
+                ServiceMethod serviceMethod = new ServiceMethod(service, implMethod, executor,
+                        RpcMetrics.server(interfaceName, method.getName()));
+                ServiceMethod[] overloads = methods.get(method.getName());
+                if (overloads == null) {
+                    overloads = new ServiceMethod[]{serviceMethod};
+                } else {
+                    overloads = Arrays.copyOf(overloads, overloads.length + 1);
+                    overloads[overloads.length - 1] = serviceMethod;
+                }
+                methods.put(method.getName(), overloads);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new ClassNotFoundException("Service implementation unavailable for " + interfaceName, e);
+            }
+        }
+        log.debug("{} service methods registered for {}", interfaceClass.getMethods().length, interfaceName);
+        return methods;
+    }
+
+    /**
+     * 查找服务方法
+     *
+     * @param interfaceName  接口全限定名
+     * @param methodName     方法名
+     * @param parameterTypes 参数类型
+     * @return 服务方法
+     */
+    public static ServiceMethod lookup(String interfaceName, String methodName, Class[] parameterTypes) throws ClassNotFoundException, NoSuchMethodException {
+        Map<String, ServiceMethod[]> methods = METHODS.get(interfaceName);
+        if (methods == null) {
+            methods = resolve(interfaceName);
+        }
+        ServiceMethod[] overloads = methods.get(methodName);
+        if (overloads != null) {
+            for (ServiceMethod overload : overloads) {
+                if (overload.matches(parameterTypes)) {
+                    return overload;
+                }
+            }
+        }
+        throw new NoSuchMethodException(interfaceName + "." + methodName + Arrays.toString(parameterTypes));
+    }
+
+    /**
+     * 在 computeIfAbsent 中传递受检异常
+     */
+    private static final class UnresolvedServiceException extends RuntimeException {
+
+        UnresolvedServiceException(ClassNotFoundException cause) {
+            super(cause);
+        }
+    }
+}
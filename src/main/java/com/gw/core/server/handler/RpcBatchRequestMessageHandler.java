@@ -0,0 +1,159 @@
+package com.gw.core.server.handler;
+
+import com.gw.core.message.RpcBatchRequestMessage;
+import com.gw.core.message.RpcBatchResponseMessage;
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.message.RpcResponseMessage;
+import com.gw.core.server.ConcurrencyLimiter;
+import com.gw.core.server.ServiceMethod;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: 批量Rpc请求处理程序
+ * <p>
+ * 各请求依次解析后，按 parallel 标记并行或顺序执行，全部完成后以一个批量响应写回，响应顺序与请求一致
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 18:20
+ */
+@Slf4j
+@ChannelHandler.Sharable
+public class RpcBatchRequestMessageHandler extends SimpleChannelInboundHandler<RpcBatchRequestMessage> {
+
+    private final ConcurrencyLimiter limiter;
+
+    public RpcBatchRequestMessageHandler() {
+        this(null);
+    }
+
+    /**
+     * @param limiter 并发限制，与单个请求共用，批内每个请求各占一个名额；null 表示不限制
+     */
+    public RpcBatchRequestMessageHandler(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, RpcBatchRequestMessage batchRequest) {
+        List<RpcRequestMessage> requests = batchRequest.getRequests();
+        int size = requests.size();
+        RpcResponseMessage[] responses = new RpcResponseMessage[size];
+        ServiceMethod[] serviceMethods = new ServiceMethod[size];
+        // 批内请求同样可能携带方法编号，解析须在 IO 线程上按顺序完成
+        for (int i = 0; i < size; i++) {
+            RpcRequestMessage rpcRequest = requests.get(i);
+            try {
+                ServiceMethod serviceMethod = RpcRequestMessageHandler.resolve(ctx.channel(), rpcRequest);
+                if (serviceMethod.isStreaming()) {
+                    responses[i] = RpcRequestMessageHandler.response(rpcRequest, null,
+                            new UnsupportedOperationException("streaming methods cannot be batched"));
+                } else {
+                    serviceMethods[i] = serviceMethod;
+                }
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                log.error("RPC processing failed. An exception occurred. Procedure. exception:{}", e.getMessage());
+                responses[i] = RpcRequestMessageHandler.response(rpcRequest, null, e);
+            }
+        }
+        Batch batch = new Batch(ctx, limiter, batchRequest, serviceMethods, responses);
+        if (batchRequest.isParallel()) {
+            batch.executeAll();
+        } else {
+            batch.executeFrom(0);
+        }
+    }
+
+    /**
+     * 一次批量请求的执行状态
+     */
+    private static class Batch {
+
+        private final ChannelHandlerContext ctx;
+        private final ConcurrencyLimiter limiter;
+        private final RpcBatchRequestMessage batchRequest;
+        private final ServiceMethod[] serviceMethods;
+        private final RpcResponseMessage[] responses;
+        private final AtomicInteger remaining;
+
+        Batch(ChannelHandlerContext ctx, ConcurrencyLimiter limiter, RpcBatchRequestMessage batchRequest, ServiceMethod[] serviceMethods, RpcResponseMessage[] responses) {
+            this.ctx = ctx;
+            this.limiter = limiter;
+            this.batchRequest = batchRequest;
+            this.serviceMethods = serviceMethods;
+            this.responses = responses;
+            this.remaining = new AtomicInteger(responses.length);
+        }
+
+        /**
+         * 所有请求同时提交到各自的执行器
+         */
+        void executeAll() {
+            if (responses.length == 0) {
+                complete();
+                return;
+            }
+            for (int i = 0; i < responses.length; i++) {
+                int index = i;
+                if (serviceMethods[i] == null) {
+                    onResponse(index, responses[index]);
+                } else {
+                    RpcRequestMessageHandler.execute(limiter, serviceMethods[i], batchRequest.getRequests().get(i), response -> onResponse(index, response));
+                }
+            }
+        }
+
+        /**
+         * 从 start 开始逐个执行，前一个完成后再提交下一个
+         * <p>
+         * 同步完成的调用（Direct 执行器、限流拒绝等）在循环内继续下一个，不在回调中递归，
+         * 否则大批量请求会在 IO 线程上逐层加深调用栈；只有回调晚于 execute 返回时才由回调接着执行
+         */
+        void executeFrom(int start) {
+            int i = start;
+            while (true) {
+                while (i < responses.length && serviceMethods[i] == null) {
+                    i++;
+                }
+                if (i == responses.length) {
+                    complete();
+                    return;
+                }
+                int index = i;
+                // 回调与循环谁先到达谁放弃继续执行的权利，后到者负责提交下一个
+                AtomicBoolean handoff = new AtomicBoolean();
+                RpcRequestMessageHandler.execute(limiter, serviceMethods[i], batchRequest.getRequests().get(i), response -> {
+                    responses[index] = response;
+                    if (!handoff.compareAndSet(false, true)) {
+                        executeFrom(index + 1);
+                    }
+                });
+                if (handoff.compareAndSet(false, true)) {
+                    return;
+                }
+                i = index + 1;
+            }
+        }
+
+        private void onResponse(int index, RpcResponseMessage response) {
+            responses[index] = response;
+            if (remaining.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+
+        private void complete() {
+            RpcBatchResponseMessage batchResponse = new RpcBatchResponseMessage();
+            batchResponse.setSequenceId(batchRequest.getSequenceId());
+            batchResponse.setResponses(Arrays.asList(responses));
+            ctx.writeAndFlush(batchResponse);
+        }
+    }
+}
@@ -2,14 +2,26 @@ package com.gw.core.server.handler;
 
 import com.gw.core.message.RpcRequestMessage;
 import com.gw.core.message.RpcResponseMessage;
-import com.gw.core.service.ServicesFactory;
+import com.gw.core.metrics.MethodMetrics;
+import com.gw.core.metrics.RpcMetrics;
+import com.gw.core.server.ConcurrencyLimiter;
+import com.gw.core.server.ServiceMethod;
+import com.gw.core.server.ServiceMethodRegistry;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Description: Rpc请求消息处理程序
@@ -21,21 +33,219 @@ import java.lang.reflect.Method;
 @ChannelHandler.Sharable
 public class RpcRequestMessageHandler extends SimpleChannelInboundHandler<RpcRequestMessage> {
 
+    /**
+     * 连接内已登记的方法编号，只在连接所属的 EventLoop 上访问
+     */
+    private static final AttributeKey<IntObjectMap<ServiceMethod>> METHOD_IDS = AttributeKey.valueOf("rpc.methodIds");
+    /**
+     * 连接内解析失败的方法编号及其异常。客户端在首个请求写出后即认为编号已登记，
+     * 之后只携带编号，因此解析失败也须按编号记下，后续请求得到同样的异常而不是未知编号
+     */
+    private static final AttributeKey<IntObjectMap<ReflectiveOperationException>> FAILED_METHOD_IDS = AttributeKey.valueOf("rpc.failedMethodIds");
+
+    /**
+     * 过载与执行器饱和时的响应异常，共用同一实例且不带栈，拒绝路径上不创建对象
+     */
+    private static final RejectedExecutionException OVERLOADED = stackless(new RejectedExecutionException("Server overloaded, request rejected"));
+    private static final RejectedExecutionException BUSY = stackless(new RejectedExecutionException("Server busy, request rejected"));
+
+    private final ConcurrencyLimiter limiter;
+
+    public RpcRequestMessageHandler() {
+        this(null);
+    }
+
+    /**
+     * @param limiter 并发限制，null 表示不限制
+     */
+    public RpcRequestMessageHandler(ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, RpcRequestMessage rpcRequest) {
-        RpcResponseMessage rpcResponse = new RpcResponseMessage();
-        log.info("Netty rpc server receives the request:{}", rpcRequest);
+        ServiceMethod serviceMethod;
+        try {
+            // 方法编号的登记依赖请求到达顺序，解析必须留在 IO 线程上
+            serviceMethod = resolve(ctx.channel(), rpcRequest);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            log.error("RPC processing failed. An exception occurred. Procedure. exception:{}", e.getMessage());
+            ctx.writeAndFlush(response(rpcRequest, null, e));
+            rpcRequest.recycle();
+            return;
+        }
+        if (serviceMethod.isStreaming()) {
+            RpcStreamWriter.start(ctx, serviceMethod, rpcRequest);
+            return;
+        }
+        execute(limiter, serviceMethod, rpcRequest, response -> {
+            // 响应生成后不再需要请求，回收后再写出
+            rpcRequest.recycle();
+            ctx.writeAndFlush(response);
+        });
+    }
+
+    /**
+     * 在服务方法的执行器上调用，得到响应后交给 callback；callback 可能在 IO 线程、业务线程或异步结果的完成线程上执行。
+     * 超出并发上限时不进入执行器，直接以过载响应回调
+     */
+    static void execute(ConcurrencyLimiter limiter, ServiceMethod serviceMethod, RpcRequestMessage rpcRequest, Consumer<RpcResponseMessage> callback) {
+        if (limiter != null && !limiter.tryAcquire()) {
+            callback.accept(response(rpcRequest, null, OVERLOADED));
+            return;
+        }
+        MethodMetrics metrics = RpcMetrics.isEnabled() ? serviceMethod.getMetrics() : null;
+        if (metrics == null && limiter == null) {
+            dispatch(serviceMethod, rpcRequest, null, callback);
+            return;
+        }
+        Execution execution = new Execution(metrics, limiter, callback);
+        dispatch(serviceMethod, rpcRequest, execution, execution);
+    }
+
+    /**
+     * @param execution 需要记录开始调用时间时非空
+     */
+    private static void dispatch(ServiceMethod serviceMethod, RpcRequestMessage rpcRequest, Execution execution, Consumer<RpcResponseMessage> callback) {
+        Executor executor = serviceMethod.getExecutor();
+        if (executor == null) {
+            invoke(serviceMethod, rpcRequest, callback);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                if (execution != null) {
+                    execution.invoked = System.nanoTime();
+                }
+                invoke(serviceMethod, rpcRequest, callback);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("RPC request rejected, business executor is saturated. sequenceId:{}", rpcRequest.getSequenceId());
+            callback.accept(response(rpcRequest, null, BUSY));
+        }
+    }
+
+    /**
+     * 调用服务方法并生成响应
+     */
+    private static void invoke(ServiceMethod serviceMethod, RpcRequestMessage rpcRequest, Consumer<RpcResponseMessage> callback) {
+        Object invoke;
+        try {
+            invoke = serviceMethod.invoke(rpcRequest.getParameterValue());
+        } catch (InvocationTargetException e) {
+            log.error("RPC processing failed. An exception occurred. Procedure. exception:{}", e.getMessage());
+            callback.accept(response(rpcRequest, null, e));
+            return;
+        }
+        if (invoke instanceof CompletableFuture) {
+            // 异步服务：结果就绪后再写回，不占用当前线程
+            ((CompletableFuture<?>) invoke).whenComplete((value, cause) -> {
+                if (cause == null) {
+                    callback.accept(response(rpcRequest, value, null));
+                } else {
+                    Throwable actual = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+                    log.error("RPC processing failed. An exception occurred. Procedure. exception:{}", actual.getMessage());
+                    callback.accept(response(rpcRequest, null, actual instanceof Exception ? (Exception) actual : new RuntimeException(actual)));
+                }
+            });
+            return;
+        }
+        callback.accept(response(rpcRequest, invoke, null));
+    }
+
+    /**
+     * 一次请求的执行计时，得到响应后记录指标、归还并发名额，再交给原回调
+     */
+    private static final class Execution implements Consumer<RpcResponseMessage> {
+
+        private final MethodMetrics metrics;
+        private final ConcurrencyLimiter limiter;
+        private final Consumer<RpcResponseMessage> callback;
+        /**
+         * 从进入执行器排队开始计时，排队时间计入服务端延迟，也是限制器判断过载的依据
+         */
+        private final long start;
+        /**
+         * 开始调用服务方法的时间，由业务线程在调用前写入，回调在同一线程或经由 CompletableFuture 完成，均能看到写入
+         */
+        private long invoked;
+
+        Execution(MethodMetrics metrics, ConcurrencyLimiter limiter, Consumer<RpcResponseMessage> callback) {
+            this.metrics = metrics;
+            this.limiter = limiter;
+            this.callback = callback;
+            this.start = metrics == null ? System.nanoTime() : metrics.start();
+            this.invoked = start;
+        }
+
+        @Override
+        public void accept(RpcResponseMessage response) {
+            if (metrics != null) {
+                metrics.stop(start, response.getExceptionValue() != null);
+            }
+            if (limiter != null) {
+                limiter.release(start, invoked, response.getExceptionValue() == BUSY);
+            }
+            callback.accept(response);
+        }
+    }
+
+    private static <T extends Exception> T stackless(T exception) {
+        exception.setStackTrace(new StackTraceElement[0]);
+        return exception;
+    }
+
+    static RpcResponseMessage response(RpcRequestMessage rpcRequest, Object returnValue, Exception exceptionValue) {
+        RpcResponseMessage rpcResponse = RpcResponseMessage.newInstance();
         rpcResponse.setSequenceId(rpcRequest.getSequenceId());
         rpcResponse.setMessageType(rpcRequest.getMessageType());
+        rpcResponse.setReturnValue(returnValue);
+        rpcResponse.setExceptionValue(exceptionValue);
+        return rpcResponse;
+    }
+
+    /**
+     * 解析请求对应的服务方法：携带签名的请求按名称解析，同时携带编号时将结果或解析失败登记到连接上；只携带编号的请求直接查表
+     */
+    static ServiceMethod resolve(Channel channel, RpcRequestMessage rpcRequest) throws ClassNotFoundException, NoSuchMethodException {
+        int methodId = rpcRequest.getMethodId();
+        if (rpcRequest.getInterfaceName() == null) {
+            IntObjectMap<ServiceMethod> methodIds = channel.attr(METHOD_IDS).get();
+            ServiceMethod serviceMethod = methodIds == null ? null : methodIds.get(methodId);
+            if (serviceMethod == null) {
+                IntObjectMap<ReflectiveOperationException> failures = channel.attr(FAILED_METHOD_IDS).get();
+                ReflectiveOperationException failure = failures == null ? null : failures.get(methodId);
+                if (failure instanceof ClassNotFoundException) {
+                    throw (ClassNotFoundException) failure;
+                }
+                if (failure != null) {
+                    throw (NoSuchMethodException) failure;
+                }
+                throw new NoSuchMethodException("Unknown method id " + methodId);
+            }
+            return serviceMethod;
+        }
+        ServiceMethod serviceMethod;
         try {
-            Object service = ServicesFactory.getService(Class.forName(rpcRequest.getInterfaceName()));
-            Method method = service.getClass().getMethod(rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
-            Object invoke = method.invoke(service, rpcRequest.getParameterValue());
-            rpcResponse.setReturnValue(invoke);
-        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            log.error("RPC processing failed. An exception occurred. Procedure. exception:{}", e.getMessage());
-            rpcResponse.setExceptionValue(e);
+            serviceMethod = ServiceMethodRegistry.lookup(rpcRequest.getInterfaceName(), rpcRequest.getMethodName(), rpcRequest.getParameterTypes());
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            if (methodId != 0) {
+                methodIds(channel, FAILED_METHOD_IDS).put(methodId, e);
+            }
+            throw e;
+        }
+        if (methodId != 0) {
+            methodIds(channel, METHOD_IDS).put(methodId, serviceMethod);
+        }
+        return serviceMethod;
+    }
+
+    private static <V> IntObjectMap<V> methodIds(Channel channel, AttributeKey<IntObjectMap<V>> key) {
+        IntObjectMap<V> methodIds = channel.attr(key).get();
+        if (methodIds == null) {
+            methodIds = new IntObjectHashMap<>();
+            channel.attr(key).set(methodIds);
         }
-        ctx.writeAndFlush(rpcResponse);
+        return methodIds;
     }
 }
@@ -0,0 +1,27 @@
+package com.gw.core.server.handler;
+
+import com.gw.core.message.RpcStreamMessage;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+/**
+ * Description: 客户端控制流式调用的处理程序
+ * <p>
+ * 客户端以与请求同序号的消息追加可写出的块数，或在放弃迭代时发来结束块，均交由 {@link RpcStreamWriter} 处理
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 10:20
+ */
+@ChannelHandler.Sharable
+public class RpcStreamControlHandler extends SimpleChannelInboundHandler<RpcStreamMessage> {
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, RpcStreamMessage msg) {
+        if (msg.isEnd()) {
+            RpcStreamWriter.cancel(ctx.channel(), msg.getSequenceId());
+        } else {
+            RpcStreamWriter.grant(ctx.channel(), msg.getSequenceId(), msg.getCredit());
+        }
+    }
+}
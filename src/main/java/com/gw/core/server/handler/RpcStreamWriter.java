@@ -0,0 +1,244 @@
+package com.gw.core.server.handler;
+
+import com.gw.core.config.Config;
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.message.RpcStreamMessage;
+import com.gw.core.server.ServiceMethod;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: 流式方法的响应写出
+ * <p>
+ * 在服务的执行器上调用方法并从返回的迭代器中按块拉取元素写出。每写出一块消耗一个额度，额度由客户端按消费进度追加，
+ * 额度用尽时暂停拉取，流控只作用于这一个流，同一连接上的其它调用与流照常收发。
+ * 已写出未落到套接字的块达到上限，或连接不可写时同样暂停，待写出完成后再在执行器上继续，服务端内存不随结果总量增长。
+ * 客户端放弃迭代时发来同一序号的结束块，收到后停止拉取并关闭迭代器
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 19:50
+ */
+@Slf4j
+class RpcStreamWriter implements Runnable {
+
+    /**
+     * 连接上正在写出的流，按请求序号索引
+     */
+    private static final AttributeKey<Map<Integer, RpcStreamWriter>> WRITERS = AttributeKey.valueOf("rpc.streamWriters");
+
+    private final ChannelHandlerContext ctx;
+    private final ServiceMethod serviceMethod;
+    private final RpcRequestMessage rpcRequest;
+    private final int chunkSize = Config.getServerStreamChunkSize();
+    private final int maxInFlight = Config.getServerStreamMaxInFlight();
+
+    /**
+     * 已写出但尚未完成的块数
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 客户端允许继续写出的块数，初始为 0，由客户端在发出请求后立即追加
+     */
+    private final AtomicInteger credit = new AtomicInteger();
+
+    /**
+     * 是否有线程正在拉取，保证同一时刻只有一个线程访问迭代器
+     */
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    private volatile boolean cancelled;
+
+    private Iterator<?> iterator;
+
+    /**
+     * 结束块是否已写出，此后出错也不再写出第二个结束块
+     */
+    private boolean ended;
+
+    private RpcStreamWriter(ChannelHandlerContext ctx, ServiceMethod serviceMethod, RpcRequestMessage rpcRequest) {
+        this.ctx = ctx;
+        this.serviceMethod = serviceMethod;
+        this.rpcRequest = rpcRequest;
+    }
+
+    /**
+     * 开始执行流式方法
+     */
+    static void start(ChannelHandlerContext ctx, ServiceMethod serviceMethod, RpcRequestMessage rpcRequest) {
+        RpcStreamWriter writer = new RpcStreamWriter(ctx, serviceMethod, rpcRequest);
+        writers(ctx.channel()).put(rpcRequest.getSequenceId(), writer);
+        writer.dispatch();
+    }
+
+    /**
+     * 客户端取消流，不再写出后续的块
+     *
+     * @param channel    连接
+     * @param sequenceId 请求序号
+     */
+    static void cancel(Channel channel, int sequenceId) {
+        RpcStreamWriter writer = writers(channel).get(sequenceId);
+        if (writer != null) {
+            writer.cancelled = true;
+            // 暂停中的流没有线程在拉取，调度一次以关闭迭代器
+            if (writer.running.compareAndSet(false, true)) {
+                writer.dispatch();
+            }
+        }
+    }
+
+    /**
+     * 客户端消费了若干块，追加可写出的块数
+     *
+     * @param channel    连接
+     * @param sequenceId 请求序号
+     * @param chunks     追加的块数
+     */
+    static void grant(Channel channel, int sequenceId, int chunks) {
+        RpcStreamWriter writer = writers(channel).get(sequenceId);
+        if (writer != null && chunks > 0) {
+            writer.credit.addAndGet(chunks);
+            // 因额度用尽而暂停的流没有线程在拉取，追加后调度继续
+            if (writer.running.compareAndSet(false, true)) {
+                writer.dispatch();
+            }
+        }
+    }
+
+    private static Map<Integer, RpcStreamWriter> writers(Channel channel) {
+        Map<Integer, RpcStreamWriter> writers = channel.attr(WRITERS).get();
+        if (writers == null) {
+            Map<Integer, RpcStreamWriter> created = new ConcurrentHashMap<>();
+            writers = channel.attr(WRITERS).setIfAbsent(created);
+            if (writers == null) {
+                writers = created;
+            }
+        }
+        return writers;
+    }
+
+    private void dispatch() {
+        Executor executor = serviceMethod.getExecutor();
+        try {
+            (executor == null ? ctx.executor() : executor).execute(this);
+        } catch (RejectedExecutionException e) {
+            log.warn("RPC stream rejected, business executor is saturated. sequenceId:{}", rpcRequest.getSequenceId());
+            finish(new RejectedExecutionException("Server busy, request rejected"));
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (cancelled) {
+                close();
+                return;
+            }
+            if (iterator == null) {
+                Object result = serviceMethod.invoke(rpcRequest.getParameterValue());
+                iterator = result == null ? Collections.emptyIterator() : (Iterator<?>) result;
+            }
+            while (true) {
+                if (cancelled || !ctx.channel().isActive()) {
+                    close();
+                    return;
+                }
+                if (shouldPause()) {
+                    running.set(false);
+                    // 暂停期间写出可能已全部完成或额度已追加，重新检查以免错过唤醒
+                    if (shouldPause() || !running.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                List<Object> items = new ArrayList<>(chunkSize);
+                while (items.size() < chunkSize && iterator.hasNext()) {
+                    items.add(iterator.next());
+                }
+                boolean end = !iterator.hasNext();
+                write(items, end, null);
+                if (end) {
+                    close();
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            // 惰性生成元素的迭代器可能抛出 Error，同样须以出错的结束块终止，否则客户端会一直等待下一块
+            log.error("RPC stream failed. An exception occurred. Procedure. exception:{}", e.toString());
+            if (ended) {
+                close();
+            } else {
+                finish(e instanceof Exception ? (Exception) e : new RuntimeException(e));
+            }
+            rethrowIfFatal(e);
+        }
+    }
+
+    private boolean shouldPause() {
+        if (credit.get() <= 0) {
+            return true;
+        }
+        int pending = inFlight.get();
+        return pending >= maxInFlight || (pending > 0 && !ctx.channel().isWritable());
+    }
+
+    private void write(List<Object> items, boolean end, Exception exceptionValue) {
+        RpcStreamMessage chunk = new RpcStreamMessage();
+        chunk.setSequenceId(rpcRequest.getSequenceId());
+        chunk.setItems(items);
+        chunk.setEnd(end);
+        chunk.setExceptionValue(exceptionValue);
+        ended = end;
+        // 出错的结束块不受额度限制，额度可能因此降到 0 以下，此后不再写出
+        credit.decrementAndGet();
+        inFlight.incrementAndGet();
+        ctx.writeAndFlush(chunk).addListener(future -> {
+            if (inFlight.decrementAndGet() < maxInFlight && running.compareAndSet(false, true)) {
+                dispatch();
+            }
+        });
+    }
+
+    private void finish(Exception exceptionValue) {
+        write(Collections.emptyList(), true, exceptionValue);
+        close();
+    }
+
+    /**
+     * 迭代器持有资源（如数据库游标）时一并释放
+     */
+    private void close() {
+        writers(ctx.channel()).remove(rpcRequest.getSequenceId(), this);
+        if (iterator instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (Throwable e) {
+                log.warn("failed to close stream iterator. sequenceId:{}", rpcRequest.getSequenceId(), e);
+                rethrowIfFatal(e);
+            }
+        }
+    }
+
+    /**
+     * 虚拟机错误等无法恢复的错误在写出结束块、释放迭代器后继续抛出，交由执行线程处理
+     */
+    private static void rethrowIfFatal(Throwable e) {
+        if (e instanceof VirtualMachineError || e instanceof ThreadDeath || e instanceof LinkageError) {
+            throw (Error) e;
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.gw.core.service;
 
+import com.gw.core.reference.stub.RpcStub;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Description: 测试实现
  *
  * @author LinHuiBa-YanAn
  * @date 2023/8/7 20:52
  */
+@RpcStub
 public interface HelloService {
 
     /**
@@ -16,4 +22,30 @@ public interface HelloService {
      */
     String sayHello(String name);
 
+    /**
+     * 异步说hello
+     *
+     * @param name 名称
+     * @return 向名称问好的异步结果
+     */
+    CompletableFuture<String> sayHelloAsync(String name);
+
+    /**
+     * 流式说hello
+     *
+     * @param name  名称
+     * @param count 问候次数
+     * @return 逐个返回的问候
+     */
+    Iterator<String> sayHelloStream(String name, int count);
+
+    /**
+     * 耗时一段时间后说hello，模拟有实际处理开销的服务
+     *
+     * @param name   名称
+     * @param millis 处理耗时，毫秒
+     * @return 向名称问好
+     */
+    String sayHelloAfter(String name, int millis);
+
 }
@@ -2,42 +2,46 @@ package com.gw.core.service;
 
 import com.gw.core.config.Config;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Description: 服务工厂
+ * <p>
+ * 实现类按 接口全限定名=实现类全限定名 从 {@link Config} 读取，某个服务首次被获取时才加载实现类并创建实例
  *
  * @author LinHuiBa-YanAn
  * @date 2023/8/7 20:54
  */
 public class ServicesFactory {
 
-    static Properties properties;
     static Map<Class<?>, Object> map = new ConcurrentHashMap<>();
 
-    static {
-        try (InputStream in = Config.class.getResourceAsStream("/application.properties")) {
-            properties = new Properties();
-            properties.load(in);
-            Set<String> names = properties.stringPropertyNames();
-            for (String name : names) {
-                if (name.endsWith("Service")) {
-                    Class<?> interfaceClass = Class.forName(name);
-                    Class<?> instanceClass = Class.forName(properties.getProperty(name));
-                    map.put(interfaceClass, instanceClass.newInstance());
-                }
-            }
-        } catch (IOException | ClassNotFoundException | InstantiationException | IllegalAccessException e) {
-            throw new ExceptionInInitializerError(e);
+    /**
+     * 获取服务实现
+     *
+     * @param interfaceClass 服务接口
+     * @param <T>            服务接口
+     * @return 实现实例，未配置实现时为 null
+     * @throws IllegalStateException 实现类无法加载或创建
+     */
+    public static <T> T getService(Class<T> interfaceClass) {
+        Object service = map.get(interfaceClass);
+        if (service == null) {
+            service = map.computeIfAbsent(interfaceClass, ServicesFactory::create);
         }
+        return (T) service;
     }
 
-    public static <T> T getService(Class<T> interfaceClass) {
-        return (T) map.get(interfaceClass);
+    private static Object create(Class<?> interfaceClass) {
+        String implementation = Config.getServiceImplementation(interfaceClass.getName());
+        if (implementation == null) {
+            return null;
+        }
+        try {
+            return Class.forName(implementation).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("failed to create " + implementation + " for " + interfaceClass.getName(), e);
+        }
     }
 }
@@ -2,6 +2,11 @@ package com.gw.core.service.impl;
 
 import com.gw.core.service.HelloService;
 
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Description:
  *
@@ -15,4 +20,39 @@ public class HelloServiceImpl implements HelloService {
     public String sayHello(String name) {
         return "hello, " + name;
     }
+
+    @Override
+    public CompletableFuture<String> sayHelloAsync(String name) {
+        return CompletableFuture.completedFuture(sayHello(name));
+    }
+
+    @Override
+    public Iterator<String> sayHelloStream(String name, int count) {
+        return new Iterator<String>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return sayHello(name) + " #" + index++;
+            }
+        };
+    }
+
+    @Override
+    public String sayHelloAfter(String name, int millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return sayHello(name);
+    }
 }
@@ -0,0 +1,176 @@
+package com.gw.core.transport;
+
+import com.gw.core.config.Config;
+import com.gw.core.protocol.MessageCodecSharable;
+import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Description: 消息跟踪，以 INFO 级别记录解码后的入站消息与编码前的出站消息
+ * <p>
+ * 跟踪处理器只在需要时才加入 pipeline，默认不做任何逐消息的日志工作：
+ * trace.sample=N 时全部连接每 N 条消息随机记录一条；也可在运行时通过 JMX（com.gw.rpc:type=Trace）
+ * 调整抽样或对单条连接开启完整跟踪
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:20
+ */
+@Slf4j
+@ChannelHandler.Sharable
+public class RpcTrace extends ChannelDuplexHandler implements RpcTraceMXBean {
+
+    private static final RpcTrace INSTANCE = new RpcTrace();
+
+    /**
+     * 连接是否开启完整跟踪
+     */
+    private static final AttributeKey<Boolean> TRACED = AttributeKey.valueOf("rpc.traced");
+
+    /**
+     * 服务端与客户端的全部连接，关闭后自动移出
+     */
+    private static final ChannelGroup CHANNELS = new DefaultChannelGroup("rpc", GlobalEventExecutor.INSTANCE);
+
+    private static volatile int sample = Config.getTraceSample();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName("com.gw.rpc:type=Trace"));
+        } catch (JMException e) {
+            log.debug("failed to register trace MXBean", e);
+        }
+    }
+
+    private RpcTrace() {
+    }
+
+    /**
+     * 登记新建立的连接，须在编解码器加入 pipeline 之后调用
+     *
+     * @param channel 连接
+     */
+    public static void register(Channel channel) {
+        CHANNELS.add(channel);
+        if (sample > 0) {
+            install(channel);
+        }
+    }
+
+    /**
+     * 开启或关闭单条连接的完整跟踪
+     *
+     * @param channel 连接
+     * @param enabled 是否开启
+     */
+    public static void trace(Channel channel, boolean enabled) {
+        channel.attr(TRACED).set(enabled);
+        if (enabled || sample > 0) {
+            install(channel);
+        } else {
+            uninstall(channel);
+        }
+    }
+
+    /**
+     * 调整抽样，对已建立的连接立即生效
+     *
+     * @param every 每 N 条消息记录一条，0 表示关闭
+     */
+    public static void sample(int every) {
+        sample = Math.max(every, 0);
+        for (Channel channel : CHANNELS) {
+            if (sample > 0 || channel.attr(TRACED).get() == Boolean.TRUE) {
+                install(channel);
+            } else {
+                uninstall(channel);
+            }
+        }
+    }
+
+    /**
+     * 紧跟在编解码器之后，业务处理器经自身 ctx 写出的响应也会经过
+     */
+    private static void install(Channel channel) {
+        channel.eventLoop().execute(() -> {
+            ChannelPipeline pipeline = channel.pipeline();
+            ChannelHandlerContext codec = pipeline.context(MessageCodecSharable.class);
+            if (codec != null && pipeline.get(RpcTrace.class) == null) {
+                pipeline.addAfter(codec.name(), "rpcTrace", INSTANCE);
+            }
+        });
+    }
+
+    private static void uninstall(Channel channel) {
+        channel.eventLoop().execute(() -> {
+            if (channel.pipeline().get(RpcTrace.class) != null) {
+                channel.pipeline().remove(INSTANCE);
+            }
+        });
+    }
+
+    private static boolean traced(Channel channel) {
+        if (channel.attr(TRACED).get() == Boolean.TRUE) {
+            return true;
+        }
+        int every = sample;
+        return every > 0 && ThreadLocalRandom.current().nextInt(every) == 0;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (traced(ctx.channel())) {
+            log.info("{} IN  {}", ctx.channel(), msg);
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (traced(ctx.channel())) {
+            log.info("{} OUT {}", ctx.channel(), msg);
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public int getSample() {
+        return sample;
+    }
+
+    @Override
+    public void setSample(int sample) {
+        sample(sample);
+    }
+
+    @Override
+    public List<String> getConnections() {
+        List<String> connections = new ArrayList<>();
+        for (Channel channel : CHANNELS) {
+            connections.add(channel.id().asShortText() + " " + channel.localAddress() + " -> " + channel.remoteAddress()
+                    + (channel.attr(TRACED).get() == Boolean.TRUE ? " [traced]" : ""));
+        }
+        return connections;
+    }
+
+    @Override
+    public boolean trace(String channelId, boolean enabled) {
+        for (Channel channel : CHANNELS) {
+            if (channel.id().asShortText().equals(channelId) || channel.id().asLongText().equals(channelId)) {
+                trace(channel, enabled);
+                return true;
+            }
+        }
+        return false;
+    }
+}
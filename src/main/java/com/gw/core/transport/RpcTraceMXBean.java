@@ -0,0 +1,33 @@
+package com.gw.core.transport;
+
+import java.util.List;
+
+/**
+ * Description: 运行时控制消息跟踪
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:20
+ */
+public interface RpcTraceMXBean {
+
+    /**
+     * @return 全部连接上每 N 条消息随机记录一条，0 表示关闭抽样
+     */
+    int getSample();
+
+    void setSample(int sample);
+
+    /**
+     * @return 当前连接：编号 本地地址 -> 远端地址，已开启完整跟踪的带 [traced]
+     */
+    List<String> getConnections();
+
+    /**
+     * 开启或关闭单条连接的完整跟踪
+     *
+     * @param channelId 连接编号（短格式或完整格式）
+     * @param enabled   是否开启
+     * @return 是否找到该连接
+     */
+    boolean trace(String channelId, boolean enabled);
+}
@@ -0,0 +1,117 @@
+package com.gw.core.transport;
+
+import com.gw.core.config.Config;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Description: 传输层选择与 Socket 参数
+ * <p>
+ * transport.epoll=true 且运行在 Linux 上、native 库可加载时使用 epoll，否则退回 NIO
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 16:50
+ */
+@Slf4j
+public class Transports {
+
+    private static final boolean EPOLL = Config.isTransportEpoll() && epollAvailable();
+
+    private static boolean epollAvailable() {
+        if (Epoll.isAvailable()) {
+            return true;
+        }
+        log.warn("epoll transport requested but unavailable, falling back to NIO", Epoll.unavailabilityCause());
+        return false;
+    }
+
+    /**
+     * 是否使用 epoll
+     *
+     * @return 是否使用 epoll
+     */
+    public static boolean isEpoll() {
+        return EPOLL;
+    }
+
+    /**
+     * 创建 EventLoopGroup
+     *
+     * @param threads 线程数，0 表示使用 Netty 默认值
+     * @return EventLoopGroup
+     */
+    public static EventLoopGroup newEventLoopGroup(int threads) {
+        return EPOLL ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+    }
+
+    /**
+     * 服务端 Channel 类型
+     *
+     * @return Channel 类型
+     */
+    public static Class<? extends ServerChannel> serverChannelClass() {
+        return EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    /**
+     * 客户端 Channel 类型
+     *
+     * @return Channel 类型
+     */
+    public static Class<? extends SocketChannel> socketChannelClass() {
+        return EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * 设置服务端 Socket 参数
+     *
+     * @param bootstrap ServerBootstrap
+     */
+    public static void applyOptions(ServerBootstrap bootstrap) {
+        if (EPOLL && Config.isTransportReusePort()) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, Config.isTransportTcpNoDelay());
+        bootstrap.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark());
+        if (Config.getTransportSendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, Config.getTransportSendBufferSize());
+        }
+        if (Config.getTransportReceiveBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, Config.getTransportReceiveBufferSize());
+        }
+    }
+
+    /**
+     * 设置客户端 Socket 参数
+     *
+     * @param bootstrap Bootstrap
+     */
+    public static void applyOptions(Bootstrap bootstrap) {
+        bootstrap.option(ChannelOption.TCP_NODELAY, Config.isTransportTcpNoDelay());
+        bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark());
+        if (Config.getTransportSendBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, Config.getTransportSendBufferSize());
+        }
+        if (Config.getTransportReceiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, Config.getTransportReceiveBufferSize());
+        }
+    }
+
+    private static WriteBufferWaterMark writeBufferWaterMark() {
+        return new WriteBufferWaterMark(Config.getTransportWriteBufferLowWaterMark(), Config.getTransportWriteBufferHighWaterMark());
+    }
+}
@@ -0,0 +1,60 @@
+import com.gw.core.config.Config;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 在 IO 线程上发起需要新建连接的调用
+ * <p>
+ * 只有一个 IO 线程，连接池两条连接、轮询选择：第一次调用建立第一条连接，其异步结果的回调在 IO 线程上执行，
+ * 回调中再发起的异步调用落到尚未建立的第二条连接上，该连接也由同一个 IO 线程建立，
+ * 调用应在连接建立后正常完成，而不是在 IO 线程上等待连接而抛出 BlockingOperationException
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 11:10
+ */
+public class AsyncConnectTest {
+
+    private static final int PORT = 18086;
+
+    public static void main(String[] args) throws Exception {
+        // 只有一个 IO 线程，新连接必然注册到回调所在的线程上
+        System.setProperty("io.netty.eventLoopThreads", "1");
+        System.setProperty("server.port", String.valueOf(PORT));
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("serializer.algorithm", "Binary");
+        System.setProperty("client.pool.size", "2");
+        System.setProperty("client.pool.strategy", "RoundRobin");
+        Config.reload();
+        RpcServer server = new RpcServer(PORT);
+        server.start();
+        int status = 1;
+        try {
+            HelloService service = RpcServiceProxy.getAsyncProxyService(HelloService.class);
+            String result = service.sayHelloAsync("first")
+                    .thenCompose(first -> {
+                        System.out.println(first + " completed on " + Thread.currentThread().getName());
+                        return service.sayHelloAsync("second");
+                    })
+                    .get(5, TimeUnit.SECONDS);
+            System.out.println(result);
+            check("hello, second".equals(result), "async call from an IO thread completes on a new connection");
+
+            status = 0;
+        } finally {
+            RpcConnectionPool.shutdown();
+            server.close();
+            System.exit(status);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+}
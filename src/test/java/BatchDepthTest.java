@@ -0,0 +1,62 @@
+import com.gw.core.config.Config;
+import com.gw.core.message.RpcBatchRequestMessage;
+import com.gw.core.message.RpcBatchResponseMessage;
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.message.RpcResponseMessage;
+import com.gw.core.server.handler.RpcBatchRequestMessageHandler;
+import com.gw.core.service.HelloService;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.util.List;
+
+/**
+ * Description: 顺序执行的大批量请求
+ * <p>
+ * Direct 执行器下每个子调用都在 IO 线程上同步完成，批内请求应在循环中依次执行，
+ * 而不是每完成一个就在回调里递归提交下一个，十万个请求也不应耗尽调用栈
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 12:10
+ */
+public class BatchDepthTest {
+
+    private static final int SIZE = 100000;
+
+    public static void main(String[] args) {
+        System.setProperty("server.executor.type", "Direct");
+        Config.reload();
+        int status = 1;
+        try {
+            RpcBatchRequestMessage batchRequest = new RpcBatchRequestMessage();
+            batchRequest.setSequenceId(1);
+            for (int i = 0; i < SIZE; i++) {
+                batchRequest.getRequests().add(new RpcRequestMessage(i, HelloService.class.getName(), "sayHello",
+                        String.class, new Class[]{String.class}, new Object[]{"yanan" + i}));
+            }
+            EmbeddedChannel channel = new EmbeddedChannel(new RpcBatchRequestMessageHandler());
+            channel.writeInbound(batchRequest);
+            RpcBatchResponseMessage batchResponse = channel.readOutbound();
+            check(batchResponse != null, "sequential batch completes on the calling thread");
+            List<RpcResponseMessage> responses = batchResponse.getResponses();
+            check(responses.size() == SIZE, "one response per request");
+            boolean ordered = true;
+            for (int i = 0; i < SIZE; i++) {
+                RpcResponseMessage response = responses.get(i);
+                ordered &= response.getExceptionValue() == null && ("hello, yanan" + i).equals(response.getReturnValue());
+            }
+            check(ordered, "responses keep the request order");
+            channel.finishAndReleaseAll();
+
+            status = 0;
+        } finally {
+            System.exit(status);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+}
@@ -0,0 +1,71 @@
+import com.gw.core.config.Config;
+import com.gw.core.reference.RpcBatch;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 批量调用在发出前被拒绝
+ * <p>
+ * 连接上等待回应的请求上限为 2，连接已建立时执行 4 个调用的批量请求，登记第三个时被拒绝；
+ * execute 应返回以该异常完成的结果而不是直接抛出，之后同一连接仍可正常调用
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 14:20
+ */
+public class BatchRejectTest {
+
+    private static final int PORT = 18087;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("server.port", String.valueOf(PORT));
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("serializer.algorithm", "Binary");
+        System.setProperty("client.pool.size", "1");
+        System.setProperty("client.pending.capacity", "2");
+        Config.reload();
+        RpcServer server = new RpcServer(PORT);
+        server.start();
+        int status = 1;
+        try {
+            HelloService service = RpcServiceProxy.getProxyService(HelloService.class);
+            // 先建立连接，使批量请求走同步发出的分支
+            System.out.println(service.sayHello("warm up"));
+
+            RpcBatch batch = RpcServiceProxy.newBatch();
+            HelloService batchService = batch.getProxyService(HelloService.class);
+            for (int i = 0; i < 4; i++) {
+                batchService.sayHello("yanan" + i);
+            }
+            CompletableFuture<List<Object>> result = batch.execute();
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                throw new AssertionError("batch over the pending capacity succeeded");
+            } catch (ExecutionException e) {
+                System.out.println("batch failed: " + e.getCause());
+                check(e.getCause() instanceof RejectedExecutionException, "rejected batch completes its future exceptionally");
+            }
+
+            check("hello, again".equals(service.sayHello("again")), "the connection is usable after the rejected batch");
+            status = 0;
+        } finally {
+            RpcConnectionPool.shutdown();
+            server.close();
+            System.exit(status);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+}
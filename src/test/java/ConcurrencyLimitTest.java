@@ -0,0 +1,144 @@
+import com.gw.core.config.Config;
+import com.gw.core.metrics.LatencyHistogram;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description: 服务端并发限制的过载测试
+ * <p>
+ * 在同一进程内启动服务端，业务线程 4 个、每个请求耗时 5ms，处理能力约 800 次/秒；
+ * 200 个客户端线程不间断调用，超时 100ms，被拒绝后等待 10ms 重试。不限制时请求在业务线程池排队，排队时间超过超时后大部分调用失败；
+ * 开启限制后超出上限的请求立即被拒绝，成功调用的吞吐与延迟应保持稳定
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 22:30
+ */
+public class ConcurrencyLimitTest {
+
+    private static final int PORT = 18083;
+    private static final int CLIENTS = 200;
+    private static final int WORK_MILLIS = 5;
+    private static final long WARMUP_MILLIS = 2000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("server.port", String.valueOf(PORT));
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("server.executor.threads", "4");
+        System.setProperty("rpc.timeout", "100");
+        System.setProperty("serializer.algorithm", "Binary");
+        Config.reload();
+        HelloService service = RpcServiceProxy.getProxyService(HelloService.class);
+
+        int status = 1;
+        try {
+            Result unlimited = run(service, false);
+            System.out.println("unlimited: " + unlimited);
+            Result limited = run(service, true);
+            System.out.println("limited:   " + limited);
+            check(limited.goodput > unlimited.goodput * 2, "limiter keeps goodput at saturation");
+            check(limited.p99Millis < 100, "limiter keeps p99 of successful calls under the timeout");
+            status = 0;
+        } finally {
+            System.exit(status);
+        }
+    }
+
+    private static Result run(HelloService service, boolean limit) throws Exception {
+        System.setProperty("server.limit.enabled", String.valueOf(limit));
+        Config.reload();
+        RpcServer server = new RpcServer(PORT);
+        server.start();
+        try {
+            LatencyHistogram latency = new LatencyHistogram();
+            LongAdder succeeded = new LongAdder();
+            LongAdder rejected = new LongAdder();
+            LongAdder failed = new LongAdder();
+            long measureStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+            long end = measureStart + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+            CountDownLatch done = new CountDownLatch(CLIENTS);
+            for (int i = 0; i < CLIENTS; i++) {
+                Thread client = new Thread(() -> {
+                    try {
+                        long now;
+                        while ((now = System.nanoTime()) < end) {
+                            boolean measured = now >= measureStart;
+                            try {
+                                service.sayHelloAfter("yanan", WORK_MILLIS);
+                                if (measured) {
+                                    latency.record(System.nanoTime() - now);
+                                    succeeded.increment();
+                                }
+                            } catch (RuntimeException e) {
+                                if (String.valueOf(e.getMessage()).contains("overloaded")) {
+                                    if (measured) {
+                                        rejected.increment();
+                                    }
+                                    // 被拒绝的客户端稍后重试
+                                    sleep(10);
+                                } else if (measured) {
+                                    failed.increment();
+                                }
+                            }
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+                client.setDaemon(true);
+                client.start();
+            }
+            done.await();
+            LatencyHistogram.Snapshot snapshot = latency.snapshot();
+            double seconds = MEASURE_MILLIS / 1000.0;
+            return new Result(succeeded.sum() / seconds, rejected.sum() / seconds, failed.sum() / seconds,
+                    snapshot.percentile(0.5, TimeUnit.NANOSECONDS) / 1e6, snapshot.percentile(0.99, TimeUnit.NANOSECONDS) / 1e6);
+        } finally {
+            server.close();
+            // 等待排队中的请求执行完，不影响下一轮
+            TimeUnit.SECONDS.sleep(3);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+
+    private static class Result {
+
+        final double goodput;
+        final double rejected;
+        final double failed;
+        final double p50Millis;
+        final double p99Millis;
+
+        Result(double goodput, double rejected, double failed, double p50Millis, double p99Millis) {
+            this.goodput = goodput;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("goodput=%.0f/s rejected=%.0f/s failed=%.0f/s p50=%.1fms p99=%.1fms", goodput, rejected, failed, p50Millis, p99Millis);
+        }
+    }
+}
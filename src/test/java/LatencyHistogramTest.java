@@ -0,0 +1,34 @@
+import com.gw.core.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 延迟直方图分位数测试，记录 1..100000 微秒的均匀分布，分位数误差应在 12.5% 以内
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 20:05
+ */
+public class LatencyHistogramTest {
+    public static void main(String[] args) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        double[] quantiles = {0.5, 0.9, 0.99, 0.999};
+        for (double quantile : quantiles) {
+            double expected = quantile * 100000;
+            double actual = snapshot.percentile(quantile, TimeUnit.MICROSECONDS);
+            double error = Math.abs(actual - expected) / expected;
+            System.out.printf("p%s expected=%.0fus actual=%.1fus error=%.2f%%%n", quantile * 100, expected, actual, error * 100);
+            if (error > 0.125) {
+                throw new AssertionError("p" + quantile * 100 + " out of range: " + actual);
+            }
+        }
+        System.out.printf("count=%d mean=%.1fus max=%.1fus%n", snapshot.getCount(),
+                snapshot.mean(TimeUnit.MICROSECONDS), snapshot.max(TimeUnit.MICROSECONDS));
+
+        LatencyHistogram.Snapshot interval = histogram.snapshot().since(snapshot);
+        System.out.println("empty interval count=" + interval.getCount() + " p99=" + interval.percentile(0.99, TimeUnit.MICROSECONDS));
+    }
+}
@@ -0,0 +1,80 @@
+import com.gw.core.reference.loadbalance.LoadBalancer;
+import com.gw.core.reference.loadbalance.ProviderStats;
+import com.gw.core.registry.Provider;
+import com.gw.core.service.HelloService;
+
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Description: 负载均衡选择测试，使用虚构的提供方，不需要启动服务端
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:30
+ */
+public class LoadBalancerTest {
+    public static void main(String[] args) throws Exception {
+        Method method = HelloService.class.getMethod("sayHello", String.class);
+        List<Provider> providers = Arrays.asList(
+                new Provider("10.0.0.1", 8080, 100),
+                new Provider("10.0.0.2", 8080, 100),
+                new Provider("10.0.0.3", 8080, 200));
+
+        // 权重 1:1:2
+        Map<Provider, Integer> counts = count(LoadBalancer.of("WeightedRandom"), providers, method, 40000);
+        System.out.println("WeightedRandom " + counts);
+        check(Math.abs(counts.get(providers.get(2)) - 20000) < 1000, "weighted random ratio");
+
+        // 第一个提供方上有在途调用，应避开
+        ProviderStats busy = ProviderStats.of(providers.get(0));
+        long start = busy.start();
+        counts = count(LoadBalancer.of("LeastActive"), providers, method, 1000);
+        System.out.println("LeastActive " + counts);
+        check(!counts.containsKey(providers.get(0)), "least active avoids busy provider");
+        busy.stop(start, false);
+
+        // 第二个提供方延迟高，P2C 应极少选中
+        ProviderStats slow = ProviderStats.of(providers.get(1));
+        slow.stop(slow.start() - 50_000_000L, false);
+        ProviderStats.of(providers.get(0)).stop(ProviderStats.of(providers.get(0)).start() - 1_000_000L, false);
+        ProviderStats.of(providers.get(2)).stop(ProviderStats.of(providers.get(2)).start() - 1_000_000L, false);
+        counts = count(LoadBalancer.of("P2C"), providers, method, 1000);
+        System.out.println("P2C " + counts);
+        check(counts.getOrDefault(providers.get(1), 0) == 0, "p2c avoids slow provider");
+
+        // 同一参数总是落到同一提供方；去掉一个提供方后，只有原本落在它上面的参数改变去向
+        LoadBalancer hash = LoadBalancer.of("ConsistentHash");
+        Map<String, Provider> before = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "user-" + i;
+            Provider provider = hash.select(providers, method, new Object[]{key});
+            check(provider.equals(hash.select(providers, method, new Object[]{key})), "consistent hash is sticky");
+            before.put(key, provider);
+        }
+        List<Provider> remaining = Arrays.asList(providers.get(0), providers.get(2));
+        int moved = 0;
+        for (Map.Entry<String, Provider> entry : before.entrySet()) {
+            Provider after = hash.select(remaining, method, new Object[]{entry.getKey()});
+            if (!after.equals(entry.getValue())) {
+                moved++;
+                check(entry.getValue().equals(providers.get(1)), "only keys of the removed provider move");
+            }
+        }
+        System.out.println("ConsistentHash moved " + moved + " of 1000 keys after removing " + providers.get(1));
+        System.out.println("all load balancer checks passed");
+    }
+
+    private static Map<Provider, Integer> count(LoadBalancer balancer, List<Provider> providers, Method method, int calls) {
+        Map<Provider, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < calls; i++) {
+            counts.merge(balancer.select(providers, method, new Object[]{"yanan"}), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
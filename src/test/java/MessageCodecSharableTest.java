@@ -1,12 +1,15 @@
-import com.gw.core.config.Config;
 import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.protocol.BinaryCodec;
+import com.gw.core.protocol.Compression;
 import com.gw.core.protocol.MessageCodecSharable;
 import com.gw.core.protocol.ProtocolFrameDecoder;
 import com.gw.core.protocol.SequenceIdGenerator;
+import com.gw.core.protocol.Serializer;
 import com.gw.core.service.HelloService;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
 import io.netty.handler.logging.LoggingHandler;
 
 import java.lang.reflect.Method;
@@ -30,19 +33,85 @@ public class MessageCodecSharableTest {
         Method method = HelloService.class.getMethod("sayHello", String.class);
         String[] parameterValue = new String[]{"yanan"};
         RpcRequestMessage message = new RpcRequestMessage(sequenceId, serviceClass.getName(), method.getName(), method.getReturnType(), method.getParameterTypes(), parameterValue);
-        // channel.writeOutbound(message);
-
-        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
-        out.writeBytes(new byte[]{1, 2, 3, 4});
-        out.writeByte(1);
-        out.writeByte(Config.getSerializerAlgorithm().ordinal());
-        out.writeByte(message.getMessageType());
-        out.writeInt(message.getSequenceId());
-        out.writeByte(0xff);
-        byte[] bytes = Config.getSerializerAlgorithm().serialize(message);
-        out.writeInt(bytes.length);
-        out.writeBytes(bytes);
+        channel.writeOutbound(message);
 
+        ByteBuf out = channel.readOutbound();
         channel.writeInbound(out);
+        RpcRequestMessage decoded = channel.readInbound();
+        System.out.println(decoded);
+
+        // 小帧上限 + 压缩：大正文被压缩后拆成多帧，接收端聚合还原
+        StringBuilder large = new StringBuilder();
+        while (large.length() < 64 * 1024) {
+            large.append("yanan-").append(large.length()).append(',');
+        }
+        for (Compression compression : Compression.values()) {
+            EmbeddedChannel chunked = new EmbeddedChannel(
+                    new ProtocolFrameDecoder(1024, 12, 4, 0, 0),
+                    new MessageCodecSharable(1024, 1024 * 1024, compression, 256)
+            );
+            chunked.writeOutbound(new RpcRequestMessage(SequenceIdGenerator.nextId(), serviceClass.getName(), method.getName(),
+                    method.getReturnType(), method.getParameterTypes(), new Object[]{large.toString()}));
+            int frames = 0;
+            for (ByteBuf frame; (frame = chunked.readOutbound()) != null; frames++) {
+                chunked.writeInbound(frame);
+            }
+            RpcRequestMessage aggregated = chunked.readInbound();
+            System.out.println(compression + ": " + frames + " frames, round trip "
+                    + (large.toString().equals(aggregated.getParameterValue()[0]) ? "ok" : "FAILED"));
+        }
+
+        // 伪造的长度：几个字节的帧声明 20 亿个参数，应在分配数组前拒绝
+        channel.writeOutbound(new RpcRequestMessage(SequenceIdGenerator.nextId(), serviceClass.getName(), method.getName(),
+                method.getReturnType(), method.getParameterTypes(), parameterValue));
+        ByteBuf valid = channel.readOutbound();
+        ByteBuf payload = Unpooled.buffer();
+        BinaryCodec.writeVarInt(payload, 1);
+        BinaryCodec.writeVarInt(payload, 0);
+        BinaryCodec.writeString(payload, serviceClass.getName());
+        BinaryCodec.writeString(payload, method.getName());
+        BinaryCodec.writeClass(payload, String.class);
+        BinaryCodec.writeVarInt(payload, Integer.MAX_VALUE);
+        expectCorrupted(channel, frame(valid, payload));
+
+        // 伪造的类型编号：超出已注册类型的范围，应以损坏帧拒绝而不是越界
+        ByteBuf unknownClass = Unpooled.buffer();
+        BinaryCodec.writeVarInt(unknownClass, 1);
+        BinaryCodec.writeVarInt(unknownClass, 0);
+        BinaryCodec.writeString(unknownClass, serviceClass.getName());
+        BinaryCodec.writeString(unknownClass, method.getName());
+        BinaryCodec.writeVarInt(unknownClass, 100000);
+        expectCorrupted(channel, frame(valid, unknownClass));
+        valid.release();
+    }
+
+    /**
+     * 以 valid 的帧头与 payload 拼出 Binary 序列化的帧
+     */
+    private static ByteBuf frame(ByteBuf valid, ByteBuf payload) {
+        ByteBuf frame = Unpooled.buffer();
+        frame.writeBytes(valid, 0, 11);
+        frame.setByte(5, Serializer.Algorithm.Binary.ordinal());
+        frame.writeByte(0);
+        frame.writeInt(payload.readableBytes());
+        frame.writeBytes(payload);
+        payload.release();
+        return frame;
+    }
+
+    private static void expectCorrupted(EmbeddedChannel channel, ByteBuf malformed) {
+        try {
+            channel.writeInbound(malformed);
+            throw new AssertionError("malformed frame was decoded: " + channel.readInbound());
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof CorruptedFrameException)) {
+                cause = cause.getCause();
+            }
+            if (cause == null) {
+                throw new AssertionError("expected CorruptedFrameException", e);
+            }
+            System.out.println("malformed frame rejected: " + cause.getMessage());
+        }
     }
 }
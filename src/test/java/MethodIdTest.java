@@ -0,0 +1,69 @@
+import com.gw.core.config.Config;
+import com.gw.core.message.RpcRequestMessage;
+import com.gw.core.message.RpcResponseMessage;
+import com.gw.core.server.handler.RpcRequestMessageHandler;
+import com.gw.core.service.HelloService;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Description: 服务端按连接登记的方法编号
+ * <p>
+ * 首个请求同时携带签名与编号，之后只携带编号：解析成功时后续请求调用同一方法；
+ * 解析失败时后续请求应得到与首个请求相同的异常，而不是未知编号
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 14:50
+ */
+public class MethodIdTest {
+
+    public static void main(String[] args) {
+        System.setProperty("server.executor.type", "Direct");
+        Config.reload();
+        int status = 1;
+        try {
+            EmbeddedChannel channel = new EmbeddedChannel(new RpcRequestMessageHandler());
+
+            RpcResponseMessage first = call(channel, request(1, 1, "sayHello", "yanan"));
+            RpcResponseMessage interned = call(channel, request(2, 1, null, "linhui"));
+            check("hello, yanan".equals(first.getReturnValue()) && "hello, linhui".equals(interned.getReturnValue()),
+                    "a request carrying only the method id calls the registered method");
+
+            RpcResponseMessage missing = call(channel, request(3, 2, "noSuchMethod", "yanan"));
+            RpcResponseMessage again = call(channel, request(4, 2, null, "yanan"));
+            System.out.println("first: " + missing.getExceptionValue());
+            System.out.println("again: " + again.getExceptionValue());
+            check(missing.getExceptionValue() instanceof NoSuchMethodException, "an unknown method fails with NoSuchMethodException");
+            check(again.getExceptionValue() instanceof NoSuchMethodException
+                            && missing.getExceptionValue().getMessage().equals(again.getExceptionValue().getMessage()),
+                    "a later request with the same id reports the original resolution failure");
+            channel.finishAndReleaseAll();
+
+            status = 0;
+        } finally {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * @param methodName 为 null 时只携带编号
+     */
+    private static RpcRequestMessage request(int sequenceId, int methodId, String methodName, String name) {
+        RpcRequestMessage request = methodName == null
+                ? new RpcRequestMessage(sequenceId, null, null, null, null, new Object[]{name})
+                : new RpcRequestMessage(sequenceId, HelloService.class.getName(), methodName, String.class, new Class[]{String.class}, new Object[]{name});
+        request.setMethodId(methodId);
+        return request;
+    }
+
+    private static RpcResponseMessage call(EmbeddedChannel channel, RpcRequestMessage request) {
+        channel.writeInbound(request);
+        return channel.readOutbound();
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+}
@@ -0,0 +1,103 @@
+import com.gw.core.config.Config;
+import com.gw.core.metrics.RpcMetrics;
+import com.gw.core.reference.cache.ResultCache;
+import com.gw.core.service.HelloService;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Description: 客户端结果缓存测试：命中、并发未命中合并、失败不缓存、过期、异步方法，不需要启动服务端
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/17 21:55
+ */
+public class ResultCacheTest {
+    public static void main(String[] args) throws Throwable {
+        String prefix = "client.cache." + HelloService.class.getName();
+        System.setProperty(prefix + ".sayHello.ttl", "300");
+        System.setProperty(prefix + ".sayHelloAsync.ttl", "300");
+        Config.reload();
+        Method sayHello = HelloService.class.getMethod("sayHello", String.class);
+        Method sayHelloAsync = HelloService.class.getMethod("sayHelloAsync", String.class);
+        ResultCache cache = ResultCache.of(HelloService.class, sayHello);
+        check(cache == ResultCache.of(HelloService.class, sayHello), "one cache per method");
+        check(ResultCache.of(HelloService.class, HelloService.class.getMethod("sayHelloStream", String.class, int.class)) == null,
+                "streaming methods are not cached");
+
+        AtomicInteger calls = new AtomicInteger();
+        Callable<Object> call = () -> "hello #" + calls.incrementAndGet();
+        Object first = cache.get(new Object[]{"yanan"}, call);
+        Object second = cache.get(new Object[]{"yanan"}, call);
+        cache.get(new Object[]{"linhui"}, call);
+        System.out.println("hit: " + first + " / " + second + ", calls=" + calls.get());
+        check(first.equals(second) && calls.get() == 2, "identical arguments hit the cache");
+
+        // 并发的相同未命中只发出一次调用
+        calls.set(0);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch ready = new CountDownLatch(1);
+        Future<?>[] futures = new Future[16];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = pool.submit(() -> {
+                ready.await();
+                try {
+                    return cache.get(new Object[]{"burst"}, () -> {
+                        Thread.sleep(100);
+                        return "burst #" + calls.incrementAndGet();
+                    });
+                } catch (Throwable e) {
+                    throw new ExecutionException(e);
+                }
+            });
+        }
+        ready.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        System.out.println("single-flight: 16 concurrent misses, calls=" + calls.get());
+        check(calls.get() == 1, "concurrent misses are coalesced");
+
+        // 失败不缓存
+        calls.set(0);
+        try {
+            cache.get(new Object[]{"fail"}, () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("boom");
+            });
+            check(false, "failure is rethrown");
+        } catch (IllegalStateException expected) {
+            System.out.println("failure rethrown: " + expected.getMessage());
+        }
+        cache.get(new Object[]{"fail"}, () -> "recovered #" + calls.incrementAndGet());
+        check(calls.get() == 2, "failures are not cached");
+
+        // 过期后重新调用
+        calls.set(0);
+        Thread.sleep(350);
+        cache.get(new Object[]{"yanan"}, call);
+        check(calls.get() == 1, "entries expire after ttl");
+
+        // 异步方法：失败的 future 不缓存，成功的 future 共享结果但每次返回新实例
+        ResultCache asyncCache = ResultCache.of(HelloService.class, sayHelloAsync);
+        CompletableFuture<Object> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("async boom"));
+        CompletableFuture<?> a = (CompletableFuture<?>) asyncCache.get(new Object[]{"x"}, () -> failed);
+        check(a.isCompletedExceptionally(), "failed future is returned");
+        CompletableFuture<?> b = (CompletableFuture<?>) asyncCache.get(new Object[]{"x"}, () -> CompletableFuture.completedFuture("ok"));
+        CompletableFuture<?> c = (CompletableFuture<?>) asyncCache.get(new Object[]{"x"}, () -> CompletableFuture.completedFuture("other"));
+        check("ok".equals(b.join()) && "ok".equals(c.join()) && b != c, "successful future is cached");
+        b.complete(null);
+
+        System.out.println(RpcMetrics.gauges());
+        System.out.println("all result cache checks passed");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -1,6 +1,9 @@
+import com.gw.core.reference.RpcBatch;
 import com.gw.core.reference.RpcServiceProxy;
 import com.gw.core.service.HelloService;
 
+import java.util.Iterator;
+
 /**
  * Description: Rpc客户端管理器测试
  *
@@ -12,5 +15,23 @@ public class RpcClientManagerTest {
         HelloService service = RpcServiceProxy.getProxyService(HelloService.class);
         String result = service.sayHello("言安");
         System.out.println(result);
+
+        HelloService asyncService = RpcServiceProxy.getAsyncProxyService(HelloService.class);
+        asyncService.sayHelloAsync("言安").thenAccept(System.out::println).join();
+
+        RpcBatch batch = RpcServiceProxy.newBatch();
+        HelloService batchService = batch.getProxyService(HelloService.class);
+        batchService.sayHello("言安");
+        batchService.sayHelloAsync("林辉");
+        batch.execute().thenAccept(System.out::println).join();
+
+        Iterator<String> stream = service.sayHelloStream("言安", 1000);
+        int count = 0;
+        String last = null;
+        while (stream.hasNext()) {
+            last = stream.next();
+            count++;
+        }
+        System.out.println(count + " streamed, last: " + last);
     }
 }
@@ -0,0 +1,74 @@
+import com.gw.core.config.Config;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.reference.RpcStream;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Description: 消费缓慢或放弃的流式调用不影响同一连接上的其它调用
+ * <p>
+ * 连接池只有一条连接，读取一个元素后停止迭代，此时服务端的额度已用尽而暂停写出；
+ * 流未关闭期间普通调用应照常完成，关闭流后新的流式调用同样完成
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 10:30
+ */
+public class StreamCancelTest {
+
+    private static final int PORT = 18085;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("server.port", String.valueOf(PORT));
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("serializer.algorithm", "Binary");
+        System.setProperty("client.pool.size", "1");
+        System.setProperty("rpc.timeout", "3000");
+        Config.reload();
+        RpcServer server = new RpcServer(PORT);
+        server.start();
+        int status = 1;
+        try {
+            HelloService service = RpcServiceProxy.getProxyService(HelloService.class);
+            Iterator<String> stream = service.sayHelloStream("x", 10000000);
+            System.out.println("first: " + stream.next());
+            // 等待服务端写满客户端的窗口并暂停
+            TimeUnit.MILLISECONDS.sleep(500);
+
+            long start = System.nanoTime();
+            String hello = service.sayHello("y");
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("while the stream is paused: " + hello + " in " + millis + "ms");
+            check(millis < 1000, "call on the shared connection completes while a stream is not consumed");
+
+            ((RpcStream<String>) stream).close();
+            check(!stream.hasNext(), "closed stream has no more elements");
+            start = System.nanoTime();
+            hello = service.sayHello("y");
+            millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            System.out.println("after close: " + hello + " in " + millis + "ms");
+            check(millis < 1000, "call on the shared connection completes after the stream is closed");
+
+            int count = 0;
+            for (Iterator<String> next = service.sayHelloStream("z", 1000); next.hasNext(); next.next()) {
+                count++;
+            }
+            check(count == 1000, "a new stream on the same connection completes");
+            status = 0;
+        } finally {
+            RpcConnectionPool.shutdown();
+            server.close();
+            System.exit(status);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+}
@@ -0,0 +1,103 @@
+import com.gw.core.config.Config;
+import com.gw.core.reference.RpcConnectionPool;
+import com.gw.core.reference.RpcServiceProxy;
+import com.gw.core.server.RpcServer;
+import com.gw.core.service.HelloService;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Description: 流式方法的迭代器抛出 Error
+ * <p>
+ * 服务端应以携带异常的结束块终止流，客户端的迭代随即抛出异常，而不是一直等到超时；
+ * 致命错误在写出结束块后仍向执行线程抛出，同一连接上的其它调用不受影响
+ *
+ * @author LinHuiBa-YanAn
+ * @date 2026/10/18 15:20
+ */
+public class StreamErrorTest {
+
+    private static final int PORT = 18088;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("server.port", String.valueOf(PORT));
+        System.setProperty("project.port", String.valueOf(PORT));
+        System.setProperty("serializer.algorithm", "Binary");
+        System.setProperty("client.pool.size", "1");
+        // 未发出结束块时迭代会等到超时，以超时与否区分
+        System.setProperty("rpc.timeout", "5000");
+        System.setProperty(FailingService.class.getName(), FailingServiceImpl.class.getName());
+        Config.reload();
+        RpcServer server = new RpcServer(PORT);
+        server.start();
+        int status = 1;
+        try {
+            FailingService service = RpcServiceProxy.getProxyService(FailingService.class);
+            Iterator<String> stream = service.items(3);
+            int count = 0;
+            long start = System.currentTimeMillis();
+            try {
+                while (stream.hasNext()) {
+                    stream.next();
+                    count++;
+                }
+                throw new AssertionError("stream ended without the error");
+            } catch (RuntimeException e) {
+                long millis = System.currentTimeMillis() - start;
+                System.out.println(count + " items, then " + e.getCause() + " in " + millis + "ms");
+                check(String.valueOf(e.getCause()).contains("StackOverflowError") && millis < 5000,
+                        "an Error from the iterator ends the stream with an error chunk");
+            }
+
+            HelloService hello = RpcServiceProxy.getProxyService(HelloService.class);
+            check("hello, yanan".equals(hello.sayHello("yanan")), "the connection is usable after the failed stream");
+            status = 0;
+        } finally {
+            RpcConnectionPool.shutdown();
+            server.close();
+            System.exit(status);
+        }
+    }
+
+    private static void check(boolean condition, String description) {
+        if (!condition) {
+            throw new AssertionError(description);
+        }
+        System.out.println("ok: " + description);
+    }
+
+    public interface FailingService {
+
+        Iterator<String> items(int count);
+    }
+
+    /**
+     * 产出 count 个元素后抛出 StackOverflowError，模拟惰性生成元素时栈溢出
+     */
+    public static class FailingServiceImpl implements FailingService {
+
+        @Override
+        public Iterator<String> items(int count) {
+            return new Iterator<String>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == count) {
+                        throw new StackOverflowError("lazy producer");
+                    }
+                    return true;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return "item" + next++;
+                }
+            };
+        }
+    }
+}